@@ -16,11 +16,22 @@
 
 package dev.terminalmc.chatnotify;
 
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.datafixers.util.Pair;
 import dev.terminalmc.chatnotify.compat.commandkeys.CommandKeysWrapper;
 import dev.terminalmc.chatnotify.config.*;
+import dev.terminalmc.chatnotify.util.ChatHistory;
+import dev.terminalmc.chatnotify.util.CustomSounds;
 import dev.terminalmc.chatnotify.util.FormatUtil;
+import dev.terminalmc.chatnotify.util.DisplayAggregator;
+import dev.terminalmc.chatnotify.util.MessageQueue;
+import dev.terminalmc.chatnotify.util.PatternCompiler;
+import dev.terminalmc.chatnotify.util.ProcessingBudget;
+import dev.terminalmc.chatnotify.util.ProcessingEvents;
 import dev.terminalmc.chatnotify.util.ModLogger;
+import dev.terminalmc.chatnotify.util.SoundPreloader;
+import dev.terminalmc.chatnotify.util.TraceBuffer;
+import dev.terminalmc.chatnotify.util.TriggerMetrics;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.components.toasts.SystemToast;
@@ -29,7 +40,10 @@ import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.gui.screens.TitleScreen;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 import static dev.terminalmc.chatnotify.util.Localization.localized;
@@ -40,6 +54,11 @@ public class ChatNotify {
     public static final ModLogger LOG = new ModLogger(MOD_NAME);
     public static boolean hasResetConfig = false;
 
+    /**
+     * The number of client ticks completed since launch.
+     */
+    public static volatile long ticks = 0;
+
     /**
      * Stores messages recently sent by the client, for comparison with incoming 
      * messages to determine sender identity.
@@ -52,33 +71,77 @@ public class ChatNotify {
     public static final List<ResponseMessage> responseMessages = new ArrayList<>();
 
     /**
-     * Stores an unmodified copy of recent incoming chat messages.
+     * The normalized address of the current server, or {@code null} if not
+     * connected to a server.
      */
-    public static final Queue<Component> unmodifiedChat = new LinkedList<>();
+    public static @Nullable String serverAddress = null;
 
     public static void init() {
+        ProcessingEvents.register();
+        CustomSounds.init();
         Config.getAndSave();
+        ConfigWatcher.start();
     }
 
     public static void onConfigSaved(Config config) {
-        // Compile regex triggers
-        for (Notification notif : config.getNotifs()) {
-            for (Trigger trig : notif.triggers) {
-                if (trig.type == Trigger.Type.REGEX) trig.tryCompilePattern();
-                if (trig.styleTarget.type == StyleTarget.Type.REGEX) {
-                    trig.styleTarget.tryCompilePattern();
-                } else if (trig.styleTarget.type == StyleTarget.Type.CAPTURING) {
-                    trig.styleTarget.tryParseIndexes();
-                }
-            }
-            for (Trigger trig : notif.exclusionTriggers) {
-                if (trig.type == Trigger.Type.REGEX) trig.tryCompilePattern();
-            }
+        config.updateActiveNotifs(serverAddress);
+        PatternCompiler.compile(config);
+        TriggerMetrics.update(config);
+        ChatHistory.setCapacity(config.chatHistorySize);
+        TraceBuffer.setEnabled(config.debugMode.equals(Config.DebugMode.ALL));
+        SoundPreloader.preload();
+    }
+
+    /**
+     * Switches to the notifications of the server, and compiles their
+     * patterns if not already compiled.
+     * @param address the normalized address of the server, or {@code null} if
+     *                not connected to a server.
+     */
+    public static void onServerChanged(@Nullable String address) {
+        serverAddress = address;
+        Config config = Config.get();
+        config.updateActiveNotifs(address);
+        PatternCompiler.compile(config);
+    }
+
+    /**
+     * @return the client command {@code /chatnotify trace dump [json|text]},
+     * for registration by the loader.
+     */
+    public static <S> LiteralArgumentBuilder<S> getCommand() {
+        return LiteralArgumentBuilder.<S>literal(MOD_ID)
+                .then(LiteralArgumentBuilder.<S>literal("trace")
+                        .then(LiteralArgumentBuilder.<S>literal("dump")
+                                .executes((ctx) -> dumpTrace(false))
+                                .then(LiteralArgumentBuilder.<S>literal("text")
+                                        .executes((ctx) -> dumpTrace(false)))
+                                .then(LiteralArgumentBuilder.<S>literal("json")
+                                        .executes((ctx) -> dumpTrace(true)))));
+    }
+
+    private static int dumpTrace(boolean json) {
+        Minecraft mc = Minecraft.getInstance();
+        try {
+            Path file = TraceBuffer.dump(json);
+            mc.gui.getChat().addMessage(localized("message", "trace.dump",
+                    Component.literal(file.toString()).withStyle(ChatFormatting.GOLD)));
+            return 1;
+        } catch (IOException e) {
+            LOG.warn("Unable to write trace", e);
+            mc.gui.getChat().addMessage(localized("message", "trace.dump.failed",
+                    e.getMessage()).withStyle(ChatFormatting.RED));
+            return 0;
         }
     }
 
     public static void onEndTick(Minecraft mc) {
+        ticks++;
+        MessageQueue.flush();
+        ProcessingBudget.tick();
+        DisplayAggregator.tick();
         tickResponseMessages(mc);
+        ConfigWatcher.tick();
 
         // Config reset warning toast
         if (hasResetConfig && mc.screen instanceof TitleScreen) {
@@ -17,19 +17,33 @@
 package dev.terminalmc.chatnotify.config;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import dev.terminalmc.chatnotify.ChatNotify;
 import dev.terminalmc.chatnotify.platform.Services;
+import dev.terminalmc.chatnotify.util.JsonFields;
 import dev.terminalmc.chatnotify.util.JsonUtil;
 import net.minecraft.sounds.SoundSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -56,20 +70,32 @@ import java.util.function.Supplier;
  * first value of the enum should be used as the default.</p>
  */
 public class Config {
-    public static final int VERSION = 9;
+    public static final int VERSION = 12;
     public final int version = VERSION;
-    private static final Path CONFIG_DIR = Services.PLATFORM.getConfigDir();
+    static final Path CONFIG_DIR = Services.PLATFORM.getConfigDir();
     public static final String FILE_NAME = ChatNotify.MOD_ID + ".json";
     public static final String UNREADABLE_FILE_NAME = ChatNotify.MOD_ID + ".unreadable.json";
     public static final String OLD_FILE_NAME = ChatNotify.MOD_ID + ".old.json";
+    /**
+     * Locked while writing the config file, as the config directory may be
+     * shared by several game instances.
+     */
+    public static final String LOCK_FILE_NAME = ChatNotify.MOD_ID + ".json.lock";
     public static final Gson GSON = new GsonBuilder()
-            .registerTypeAdapter(Config.class, new Deserializer())
-            .registerTypeAdapter(Notification.class, new Notification.Deserializer())
-            .registerTypeAdapter(Sound.class, new Sound.Deserializer())
-            .registerTypeAdapter(TextStyle.class, new TextStyle.Deserializer())
-            .registerTypeAdapter(Trigger.class, new Trigger.Deserializer())
-            .registerTypeAdapter(StyleTarget.class, new StyleTarget.Deserializer())
-            .registerTypeAdapter(ResponseMessage.class, new ResponseMessage.Deserializer())
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    Config.class, Config::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    Notification.class, Notification::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    Sound.class, Sound::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    TextStyle.class, TextStyle::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    Trigger.class, Trigger::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    StyleTarget.class, StyleTarget::deserialize))
+            .registerTypeAdapterFactory(JsonUtil.streamingFactory(
+                    ResponseMessage.class, ResponseMessage::deserialize))
             .setPrettyPrinting()
             .create();
 
@@ -83,10 +109,12 @@ public class Config {
         HUD_KNOWN_TAGS,
         HUD,
         PACKET,
+        PACKET_ASYNC,
     }
 
     /**
-     * Controls debug logging.
+     * Controls recording of message processing traces, see
+     * {@link dev.terminalmc.chatnotify.util.TraceBuffer}.
      */
     public DebugMode debugMode;
     public enum DebugMode {
@@ -139,6 +167,20 @@ public class Config {
     public boolean checkOwnMessages;
     public static final boolean checkOwnMessagesDefault = true;
 
+    /**
+     * The maximum number of recent messages retained for the trigger editor.
+     */
+    public int chatHistorySize;
+    public static final int chatHistorySizeDefault = 1000;
+    public static final int chatHistorySizeMax = 100000;
+
+    /**
+     * Whether recent messages should be saved to a per-server log, for use
+     * by the trigger editor in later sessions.
+     */
+    public boolean chatLogEnabled;
+    public static final boolean chatLogEnabledDefault = false;
+
     /**
      * The sound source (and thus, volume control category) of 
      * {@link Notification} sounds.
@@ -146,6 +188,13 @@ public class Config {
     public SoundSource soundSource;
     public static final SoundSource soundSourceDefault = SoundSource.PLAYERS;
 
+    /**
+     * The time in ticks during which repeat plays of the same
+     * {@link Notification} sound are skipped.
+     */
+    public int soundWindowTicks;
+    public static final int soundWindowTicksDefault = 2;
+
     // Defaults
 
     /**
@@ -180,6 +229,12 @@ public class Config {
     private static final Supplier<List<Notification>> notificationsDefault =
             () -> new ArrayList<>(List.of(Notification.createUser()));
 
+    /**
+     * Snapshots of the {@link Notification}s which can be activated on the
+     * current server, in order. Set by {@link Config#updateActiveNotifs}.
+     */
+    private transient volatile List<Notification> activeNotifs = List.of();
+
     /**
      * Initializes default configuration.
      */
@@ -192,7 +247,10 @@ public class Config {
                 SendMode.values()[0],
                 SenderDetectionMode.values()[0],
                 checkOwnMessagesDefault,
+                chatHistorySizeDefault,
+                chatLogEnabledDefault,
                 soundSourceDefault,
+                soundWindowTicksDefault,
                 defaultColorDefault,
                 defaultSoundDefault.get(),
                 prefixesDefault.get(),
@@ -211,7 +269,10 @@ public class Config {
             SendMode sendMode,
             SenderDetectionMode senderDetectionMode,
             boolean checkOwnMessages,
+            int chatHistorySize,
+            boolean chatLogEnabled,
             SoundSource soundSource,
+            int soundWindowTicks,
             int defaultColor,
             Sound defaultSound,
             List<String> prefixes,
@@ -224,13 +285,38 @@ public class Config {
         this.sendMode = sendMode;
         this.senderDetectionMode = senderDetectionMode;
         this.checkOwnMessages = checkOwnMessages;
+        this.chatHistorySize = chatHistorySize;
+        this.chatLogEnabled = chatLogEnabled;
         this.soundSource = soundSource;
+        this.soundWindowTicks = soundWindowTicks;
         this.defaultColor = defaultColor;
         this.defaultSound = defaultSound;
         this.prefixes = prefixes;
         this.notifications = notifications;
     }
 
+    /**
+     * Copy constructor.
+     */
+    public Config(Config pConfig) {
+        this.detectionMode = pConfig.detectionMode;
+        this.debugMode = pConfig.debugMode;
+        this.notifMode = pConfig.notifMode;
+        this.restyleMode = pConfig.restyleMode;
+        this.sendMode = pConfig.sendMode;
+        this.senderDetectionMode = pConfig.senderDetectionMode;
+        this.checkOwnMessages = pConfig.checkOwnMessages;
+        this.chatHistorySize = pConfig.chatHistorySize;
+        this.chatLogEnabled = pConfig.chatLogEnabled;
+        this.soundSource = pConfig.soundSource;
+        this.soundWindowTicks = pConfig.soundWindowTicks;
+        this.defaultColor = pConfig.defaultColor;
+        this.defaultSound = new Sound(pConfig.defaultSound);
+        this.prefixes = new ArrayList<>(pConfig.prefixes);
+        this.notifications = new ArrayList<>(pConfig.notifications.stream()
+                .map(Notification::new).toList());
+    }
+
     // Username
 
     public Notification getUserNotif() {
@@ -239,11 +325,17 @@ public class Config {
     }
 
     public void setProfileName(String name) {
-        getUserNotif().triggers.getFirst().string = name;
+        Trigger trig = getUserNotif().triggers.getFirst();
+        trig.string = name;
+        trig.tryCompilePattern();
+        updateActiveNotifs(ChatNotify.serverAddress);
     }
 
     public void setDisplayName(String name) {
-        getUserNotif().triggers.get(1).string = name;
+        Trigger trig = getUserNotif().triggers.get(1);
+        trig.string = name;
+        trig.tryCompilePattern();
+        updateActiveNotifs(ChatNotify.serverAddress);
     }
 
     // Notifications
@@ -255,6 +347,29 @@ public class Config {
         return Collections.unmodifiableList(notifications);
     }
 
+    /**
+     * @return an unmodifiable list of snapshots of the {@link Notification}s
+     * which can be activated on the current server, as of the last call to
+     * {@link Config#updateActiveNotifs}. Snapshots are not modified by the
+     * options GUI, so may be evaluated off the client thread.
+     */
+    public List<Notification> getActiveNotifs() {
+        return activeNotifs;
+    }
+
+    /**
+     * Publishes snapshots of the {@link Notification}s which can be activated
+     * on the server. Must be called on the client thread.
+     * @param address the normalized address of the server, or {@code null} if
+     *                not connected to a server.
+     */
+    public void updateActiveNotifs(@Nullable String address) {
+        activeNotifs = notifications.stream()
+                .filter((notif) -> notif.isActiveOn(address))
+                .map(Notification::snapshot)
+                .toList();
+    }
+
     /**
      * Adds a new {@link Notification} with default or blank values.
      */
@@ -301,6 +416,26 @@ public class Config {
 
     private static Config instance = null;
 
+    private static final long SAVE_DELAY_MILLIS = 500;
+    private static final AtomicReference<Config> pendingSave = new AtomicReference<>();
+    /**
+     * The digest of the config file content last written or applied by this
+     * instance, or {@code null} if not known. Guarded by {@link Config#pendingSave}.
+     */
+    private static byte @Nullable [] fileDigest = null;
+    private static final ScheduledExecutorService SAVE_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Write any pending snapshot before exit
+        Runtime.getRuntime().addShutdownHook(new Thread(Config::flush,
+                ChatNotify.MOD_NAME + " Config Flush"));
+    }
+
     public static Config get() {
         if (instance == null) {
             instance = Config.load();
@@ -322,18 +457,53 @@ public class Config {
         return instance;
     }
 
+    /**
+     * Replaces the active config with a config read from the changed file,
+     * unless a snapshot of the active config is waiting to be written. Must
+     * be called on the client thread.
+     * @param config the validated config.
+     * @param digest the digest of the file content.
+     * @return {@code true} if the config was replaced.
+     */
+    static boolean replace(Config config, byte[] digest) {
+        synchronized (pendingSave) {
+            if (pendingSave.get() != null) return false;
+            fileDigest = digest;
+        }
+        instance = config;
+        ChatNotify.responseMessages.clear();
+        ChatNotify.updateUsernameNotif(instance);
+        ChatNotify.onConfigSaved(instance);
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the digest is that of the config file content
+     * last written by this instance.
+     */
+    static boolean isFileDigest(byte[] digest) {
+        synchronized (pendingSave) {
+            return Arrays.equals(digest, fileDigest);
+        }
+    }
+
     @SuppressWarnings("UnusedReturnValue")
     public static Config reload() {
         instance = null;
         get();
         ChatNotify.responseMessages.clear();
         ChatNotify.updateUsernameNotif(instance);
+        ChatNotify.onConfigSaved(instance);
         return instance;
     }
 
     // Load and save
 
     public static @NotNull Config load() {
+        flush();
+        synchronized (pendingSave) {
+            fileDigest = null;
+        }
         Path file = CONFIG_DIR.resolve(FILE_NAME);
         Config config = null;
         if (Files.exists(file)) {
@@ -350,7 +520,16 @@ public class Config {
         return config != null ? config : new Config();
     }
 
-    @SuppressWarnings("SameParameterValue")
+    /**
+     * Reads and validates the config in the specified file, without backing
+     * up or modifying the file, or replacing the active config.
+     * @return the config, or {@code null} if the file could not be read.
+     */
+    public static @Nullable Config read(Path file) {
+        Config config = load(file, GSON);
+        return config != null ? config.validate() : null;
+    }
+
     private static @Nullable Config load(Path file, Gson gson) {
         try (InputStreamReader reader = new InputStreamReader(
                 new FileInputStream(file.toFile()), StandardCharsets.UTF_8)) {
@@ -376,33 +555,126 @@ public class Config {
         }
     }
 
+    /**
+     * Validates and applies the active config, and schedules a snapshot of it
+     * to be written to file. Must be called on the client thread.
+     *
+     * <p>Saves made within {@link Config#SAVE_DELAY_MILLIS} of each other are
+     * written once, using the latest snapshot.</p>
+     */
     public static void save() {
         if (instance == null) return;
+        ConfigWatcher.discard();
         instance.validate();
+        ChatNotify.onConfigSaved(instance);
+        if (pendingSave.getAndSet(new Config(instance)) == null) {
+            SAVE_EXECUTOR.schedule(Config::flush, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the pending snapshot, if any, on the calling thread. The write
+     * is skipped if the serialized snapshot is identical to the file content.
+     *
+     * <p>The write is made while holding a lock on {@link #LOCK_FILE_NAME}, so
+     * that instances sharing the config directory do not write at the same
+     * time.</p>
+     */
+    public static void flush() {
+        synchronized (pendingSave) {
+            Config config = pendingSave.getAndSet(null);
+            if (config != null) write(config);
+        }
+    }
+
+    private static void write(Config config) {
         try {
             if (!Files.isDirectory(CONFIG_DIR)) Files.createDirectories(CONFIG_DIR);
             Path file = CONFIG_DIR.resolve(FILE_NAME);
-            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
-            try (OutputStreamWriter writer = new OutputStreamWriter(
-                    new FileOutputStream(tempFile.toFile()), StandardCharsets.UTF_8)) {
-                writer.write(GSON.toJson(instance));
-            } catch (IOException e) {
-                throw new IOException(e);
+            byte[] digest = digest(config);
+
+            try (FileChannel lockChannel = FileChannel.open(CONFIG_DIR.resolve(LOCK_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                // Skip the write if the content would not change. The file is
+                // read, as it may have been written by another instance.
+                byte[] current = Files.exists(file) ? digest(file) : null;
+                if (Arrays.equals(digest, current)) {
+                    fileDigest = current;
+                    return;
+                }
+                if (current != null && fileDigest != null && !Arrays.equals(current, fileDigest)) {
+                    ChatNotify.LOG.info("Overwriting config file changed by another instance");
+                }
+
+                // Unique per instance, and ignored by ConfigWatcher
+                Path tempFile = Files.createTempFile(CONFIG_DIR, FILE_NAME, ".tmp");
+                try {
+                    try (JsonWriter writer = GSON.newJsonWriter(
+                            Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))) {
+                        GSON.toJson(config, Config.class, writer);
+                    } catch (JsonIOException e) {
+                        throw new IOException(e);
+                    }
+                    Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+                fileDigest = digest;
             }
-            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE,
-                    StandardCopyOption.REPLACE_EXISTING);
-            ChatNotify.onConfigSaved(instance);
         } catch (IOException e) {
+            fileDigest = null;
             ChatNotify.LOG.error("Unable to save config", e);
         }
     }
 
+    /**
+     * @return the digest of the serialized config, computed without
+     * buffering the serialized content.
+     */
+    private static byte[] digest(Config config) throws IOException {
+        MessageDigest digest = newDigest();
+        try (JsonWriter writer = GSON.newJsonWriter(new OutputStreamWriter(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest),
+                StandardCharsets.UTF_8))) {
+            GSON.toJson(config, Config.class, writer);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @return the digest of the file content.
+     */
+    static byte[] digest(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Required to be supported by all Java platforms
+            throw new IllegalStateException(e);
+        }
+    }
+
     // Validation
 
     /**
      * Validates this instance. To be called after editing and before saving.
      */
     private Config validate() {
+        if (chatHistorySize < 1 || chatHistorySize > chatHistorySizeMax)
+            chatHistorySize = chatHistorySizeDefault;
+        if (soundWindowTicks < 0) soundWindowTicks = soundWindowTicksDefault;
+
         // Validate defaults
         if (defaultColor < 0 || defaultColor > 0xFFFFFF) defaultColor = defaultColorDefault;
         defaultSound.validate();
@@ -440,67 +712,82 @@ public class Config {
             ChatNotify.LOG.error("Username notification missing triggers! Recreating...");
             notifications.set(0, Notification.createUser());
         }
+        // Required on all servers for sender detection
+        notifications.getFirst().servers.clear();
     }
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<Config> {
-        @Override
-        public Config deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static Config deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of(
+                "defaultSound", gson.getAdapter(Sound.class),
+                "notifications", gson.getAdapter(Notification.class)
+        ));
+
+        DetectionMode detectionMode = fields.getOrDefault("detectionMode",
+                DetectionMode.class, DetectionMode.values()[0]);
 
-            DetectionMode detectionMode = JsonUtil.getOrDefault(obj, "detectionMode",
-                    DetectionMode.class, DetectionMode.values()[0], silent);
+        DebugMode debugMode = fields.getOrDefault("debugMode",
+                DebugMode.class, DebugMode.values()[0]);
 
-            DebugMode debugMode = JsonUtil.getOrDefault(obj, "debugMode",
-                    DebugMode.class, DebugMode.values()[0], silent);
+        NotifMode notifMode = fields.getOrDefault("notifMode",
+                NotifMode.class, NotifMode.values()[0]);
 
-            NotifMode notifMode = JsonUtil.getOrDefault(obj, "notifMode",
-                    NotifMode.class, NotifMode.values()[0], silent);
+        RestyleMode restyleMode = fields.getOrDefault("restyleMode",
+                RestyleMode.class, RestyleMode.values()[0]);
 
-            RestyleMode restyleMode = JsonUtil.getOrDefault(obj, "restyleMode",
-                    RestyleMode.class, RestyleMode.values()[0], silent);
+        SendMode sendMode = fields.getOrDefault("sendMode",
+                SendMode.class, SendMode.values()[0]);
 
-            SendMode sendMode = JsonUtil.getOrDefault(obj, "sendMode",
-                    SendMode.class, SendMode.values()[0], silent);
+        SenderDetectionMode senderDetectionMode = fields.getOrDefault("senderDetectionMode",
+                SenderDetectionMode.class, SenderDetectionMode.values()[0]);
 
-            SenderDetectionMode senderDetectionMode = JsonUtil.getOrDefault(obj, "senderDetectionMode",
-                    SenderDetectionMode.class, SenderDetectionMode.values()[0], silent);
+        boolean checkOwnMessages = fields.getOrDefault("checkOwnMessages",
+                checkOwnMessagesDefault);
 
-            boolean checkOwnMessages = JsonUtil.getOrDefault(obj, "checkOwnMessages",
-                    checkOwnMessagesDefault, silent);
+        int chatHistorySize = fields.getOrDefault("chatHistorySize",
+                chatHistorySizeDefault);
 
-            SoundSource soundSource = JsonUtil.getOrDefault(obj, "soundSource",
-                    SoundSource.class, soundSourceDefault, silent);
+        boolean chatLogEnabled = fields.getOrDefault("chatLogEnabled",
+                chatLogEnabledDefault);
 
-            int defaultColor = JsonUtil.getOrDefault(obj, "defaultColor",
-                    defaultColorDefault, silent);
+        SoundSource soundSource = fields.getOrDefault("soundSource",
+                SoundSource.class, soundSourceDefault);
 
-            Sound defaultSound = JsonUtil.getOrDefault(ctx, obj, "defaultSound",
-                    Sound.class, defaultSoundDefault.get(), silent);
+        int soundWindowTicks = fields.getOrDefault("soundWindowTicks",
+                soundWindowTicksDefault);
 
-            List<String> prefixes = JsonUtil.getOrDefault(obj, "prefixes",
-                    prefixesDefault.get(), silent);
+        int defaultColor = fields.getOrDefault("defaultColor",
+                defaultColorDefault);
 
-            List<Notification> notifications = JsonUtil.getOrDefault(ctx, obj, "notifications",
-                    Notification.class, notificationsDefault.get(), silent);
+        Sound defaultSound = fields.getObjectOrDefault("defaultSound",
+                Sound.class, defaultSoundDefault.get());
 
-            return new Config(
-                    detectionMode,
-                    debugMode,
-                    notifMode,
-                    restyleMode,
-                    sendMode,
-                    senderDetectionMode,
-                    checkOwnMessages,
-                    soundSource,
-                    defaultColor,
-                    defaultSound,
-                    prefixes,
-                    notifications
-            ).validate();
-        }
+        List<String> prefixes = fields.getOrDefault("prefixes",
+                prefixesDefault.get());
+
+        List<Notification> notifications = fields.getListOrDefault("notifications",
+                Notification.class, notificationsDefault.get());
+
+        return new Config(
+                detectionMode,
+                debugMode,
+                notifMode,
+                restyleMode,
+                sendMode,
+                senderDetectionMode,
+                checkOwnMessages,
+                chatHistorySize,
+                chatLogEnabled,
+                soundSource,
+                soundWindowTicks,
+                defaultColor,
+                defaultSound,
+                prefixes,
+                notifications
+        ).validate();
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.config;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.util.PatternCompiler;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the config file for changes made by other programs, including other
+ * game instances sharing the config directory, and replaces the active
+ * {@link Config} with the changed config.
+ *
+ * <p>The changed file is read, validated and its patterns compiled on the
+ * watcher thread. The new config is then applied on the client thread by
+ * {@link ConfigWatcher#tick}, except while the config screen is open.
+ * Closing the screen either saves the active config, which discards the
+ * changed config, or reloads the changed file.</p>
+ */
+public class ConfigWatcher {
+    /**
+     * The time to wait for further changes before reading the file, so that
+     * a file written in several steps is read once.
+     */
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private record Change(Config config, byte[] digest) {}
+
+    private static @Nullable Thread thread = null;
+    /**
+     * The digest of the file content last read by the watcher.
+     */
+    private static byte @Nullable [] lastDigest = null;
+    private static volatile @Nullable Change pending = null;
+    private static boolean editing = false;
+
+    /**
+     * Starts watching the config file, if not already watching.
+     */
+    public static void start() {
+        if (thread != null) return;
+        Path dir = Config.CONFIG_DIR;
+        WatchService watcher;
+        try {
+            Files.createDirectories(dir);
+            watcher = dir.getFileSystem().newWatchService();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            ChatNotify.LOG.warn("Unable to watch config file for changes", e);
+            return;
+        }
+        try {
+            lastDigest = Config.digest(dir.resolve(Config.FILE_NAME));
+        } catch (IOException ignored) {}
+        thread = new Thread(() -> watch(watcher), ChatNotify.MOD_NAME + " Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void watch(WatchService watcher) {
+        try (watcher) {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean changed = hasChanged(key);
+                // Wait for further changes
+                while (changed && (key = watcher.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    hasChanged(key);
+                }
+                if (changed) read();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        } catch (IOException e) {
+            ChatNotify.LOG.warn("Stopped watching config file", e);
+        }
+    }
+
+    /**
+     * Consumes and resets the key.
+     * @return {@code true} if the config file may have changed.
+     */
+    private static boolean hasChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (event.context() instanceof Path path
+                    && path.toString().equals(Config.FILE_NAME))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static void read() {
+        Path file = Config.CONFIG_DIR.resolve(Config.FILE_NAME);
+        if (!Files.exists(file)) return;
+        byte[] digest;
+        try {
+            digest = Config.digest(file);
+        } catch (IOException e) {
+            ChatNotify.LOG.warn("Unable to read changed config file", e);
+            return;
+        }
+        // Skip files written by this instance, and unchanged files
+        if (Arrays.equals(digest, lastDigest) || Config.isFileDigest(digest)) return;
+        lastDigest = digest;
+
+        Config config = Config.read(file);
+        if (config == null) {
+            ChatNotify.LOG.warn("Ignoring unreadable change to config file");
+            return;
+        }
+        PatternCompiler.precompile(config);
+        ChatNotify.LOG.info("Config file changed, reloading");
+        pending = new Change(config, digest);
+    }
+
+    /**
+     * Applies the changed config, if any and if not editing. Must be called on
+     * the client thread.
+     */
+    public static void tick() {
+        Change change = pending;
+        if (change == null || editing) return;
+        pending = null;
+        if (!Config.replace(change.config, change.digest)) {
+            ChatNotify.LOG.info("Discarding config file change, config save pending");
+        }
+    }
+
+    /**
+     * Sets whether the config is being edited. Changed configs are not
+     * applied while editing. Must be called on the client thread.
+     */
+    public static void setEditing(boolean editing) {
+        ConfigWatcher.editing = editing;
+    }
+
+    /**
+     * Discards the changed config, if any.
+     */
+    static void discard() {
+        if (pending != null) {
+            pending = null;
+            ChatNotify.LOG.info("Discarding config file change, config has been saved");
+        }
+    }
+}
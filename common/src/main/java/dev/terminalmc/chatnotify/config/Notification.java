@@ -16,10 +16,13 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import dev.terminalmc.chatnotify.util.Functional;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import dev.terminalmc.chatnotify.util.JsonFields;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -50,14 +53,30 @@ import java.util.function.Supplier;
  * <p>A list of {@link ResponseMessage} instances, to be sent on activation.</p>
  */
 public class Notification implements Functional.StringSupplier {
-    public static final int VERSION = 7;
+    public static final int VERSION = 9;
     public final int version = VERSION;
 
     /**
      * A status flag to indicate that this instance is being edited, and should 
      * not be activated irrespective of {@link Notification#enabled}.
      */
-    public transient boolean editing = false;
+    public transient volatile boolean editing = false;
+
+    /**
+     * The client tick at which this instance was last activated, or
+     * {@code -1} if it has not been activated.
+     *
+     * <p>Only set on the client thread, by {@link Notification#setActivated},
+     * but volatile as it is read during evaluation, which may be completed by
+     * the {@link Config.DetectionMode#PACKET_ASYNC} worker thread.</p>
+     */
+    public transient volatile long lastActivationTick = -1;
+
+    /**
+     * The instance this instance is a snapshot of, or {@code null} if it is
+     * not a snapshot. See {@link Notification#snapshot}.
+     */
+    public transient @Nullable Notification source = null;
 
     // Options
 
@@ -104,6 +123,21 @@ public class Notification implements Functional.StringSupplier {
     public boolean responseEnabled;
     public static final boolean responseEnabledDefault = false;
 
+    /**
+     * The time in ticks after activation during which this instance cannot be
+     * activated again.
+     */
+    public int cooldownTicks;
+    public static final int cooldownTicksDefault = 0;
+
+    /**
+     * The addresses of the servers on which this instance can be activated,
+     * in the form returned by {@link Notification#normalizeAddress}. If empty,
+     * this instance can be activated on any server.
+     */
+    public final List<String> servers;
+    public static final Supplier<List<String>> serversDefault = ArrayList::new;
+
     /**
      * The {@link Sound} to play on activation.
      */
@@ -190,6 +224,8 @@ public class Notification implements Functional.StringSupplier {
             boolean inclusionEnabled,
             boolean exclusionEnabled,
             boolean responseEnabled,
+            int cooldownTicks,
+            List<String> servers,
             Sound sound,
             TextStyle textStyle,
             String replacementMsg,
@@ -210,6 +246,8 @@ public class Notification implements Functional.StringSupplier {
         this.inclusionEnabled = inclusionEnabled;
         this.exclusionEnabled = exclusionEnabled;
         this.responseEnabled = responseEnabled;
+        this.cooldownTicks = cooldownTicks;
+        this.servers = servers;
         this.sound = sound;
         this.textStyle = textStyle;
         this.replacementMsg = replacementMsg;
@@ -226,6 +264,37 @@ public class Notification implements Functional.StringSupplier {
         this.responseMessages = responseMessages;
     }
 
+    /**
+     * Copy constructor.
+     */
+    public Notification(Notification pNotification) {
+        this.enabled = pNotification.enabled;
+        this.checkOwnMode = pNotification.checkOwnMode;
+        this.inclusionEnabled = pNotification.inclusionEnabled;
+        this.exclusionEnabled = pNotification.exclusionEnabled;
+        this.responseEnabled = pNotification.responseEnabled;
+        this.cooldownTicks = pNotification.cooldownTicks;
+        this.servers = new ArrayList<>(pNotification.servers);
+        this.sound = new Sound(pNotification.sound);
+        this.textStyle = new TextStyle(pNotification.textStyle);
+        this.replacementMsg = pNotification.replacementMsg;
+        this.replacementMsgEnabled = pNotification.replacementMsgEnabled;
+        this.statusBarMsg = pNotification.statusBarMsg;
+        this.statusBarMsgEnabled = pNotification.statusBarMsgEnabled;
+        this.titleMsg = pNotification.titleMsg;
+        this.titleMsgEnabled = pNotification.titleMsgEnabled;
+        this.toastMsg = pNotification.toastMsg;
+        this.toastMsgEnabled = pNotification.toastMsgEnabled;
+        this.triggers = new ArrayList<>(pNotification.triggers.stream()
+                .map(Trigger::new).toList());
+        this.inclusionTriggers = new ArrayList<>(pNotification.inclusionTriggers.stream()
+                .map(Trigger::new).toList());
+        this.exclusionTriggers = new ArrayList<>(pNotification.exclusionTriggers.stream()
+                .map(Trigger::new).toList());
+        this.responseMessages = new ArrayList<>(pNotification.responseMessages.stream()
+                .map(ResponseMessage::new).toList());
+    }
+
     /**
      * Creates a new {@link Notification} for the user's name, with two default 
      * placeholder {@link Trigger}s.
@@ -237,6 +306,8 @@ public class Notification implements Functional.StringSupplier {
                 inclusionEnabledDefault,
                 exclusionEnabledDefault,
                 responseEnabledDefault,
+                cooldownTicksDefault,
+                serversDefault.get(),
                 soundDefault.get(),
                 textStyleDefault.get(),
                 replacementMsgDefault,
@@ -268,6 +339,8 @@ public class Notification implements Functional.StringSupplier {
                 inclusionEnabledDefault,
                 exclusionEnabledDefault,
                 responseEnabledDefault,
+                cooldownTicksDefault,
+                serversDefault.get(),
                 sound,
                 textStyle,
                 replacementMsgDefault,
@@ -292,7 +365,7 @@ public class Notification implements Functional.StringSupplier {
      * message sent by the user if {@code ownMsg} is {@code true}).
      */
     public boolean canActivate(boolean ownMsg) {
-        if (enabled && !editing) {
+        if (enabled && !editing && (source == null || !source.editing)) {
             if (ownMsg) {
                 return switch(checkOwnMode) {
                     case DEFER -> Config.get().checkOwnMessages;
@@ -307,6 +380,58 @@ public class Notification implements Functional.StringSupplier {
         }
     }
 
+    /**
+     * @return {@code true} if this instance can be activated on the server
+     * with the specified normalized address, or {@code null} if not connected
+     * to a server.
+     */
+    public boolean isActiveOn(@Nullable String address) {
+        return servers.isEmpty() || (address != null && servers.contains(address));
+    }
+
+    /**
+     * @return the server address in lowercase, without the default port.
+     */
+    public static String normalizeAddress(String address) {
+        String str = address.strip().toLowerCase(Locale.ROOT);
+        if (str.endsWith(":25565")) str = str.substring(0, str.length() - 6);
+        return str;
+    }
+
+    /**
+     * @return a copy of this instance, linked to this instance by
+     * {@link Notification#source}, which is not modified by the options GUI
+     * and so can be evaluated off the client thread.
+     */
+    public Notification snapshot() {
+        Notification copy = new Notification(this);
+        copy.source = this;
+        copy.lastActivationTick = lastActivationTick;
+        for (int i = 0; i < triggers.size(); i++) {
+            copy.triggers.get(i).source = triggers.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Records activation of this instance, and of its source if it is a
+     * snapshot. Must be called on the client thread.
+     * @param tick the client tick of activation.
+     */
+    public void setActivated(long tick) {
+        lastActivationTick = tick;
+        if (source != null) source.lastActivationTick = tick;
+    }
+
+    /**
+     * @return {@code true} if this instance was activated less than
+     * {@link Notification#cooldownTicks} ticks before the specified tick.
+     */
+    public boolean isCoolingDown(long tick) {
+        return cooldownTicks > 0 && lastActivationTick >= 0
+                && tick - lastActivationTick < cooldownTicks;
+    }
+
     // List reordering
 
     /**
@@ -389,6 +514,9 @@ public class Notification implements Functional.StringSupplier {
      * Validates this instance. To be called after editing and before saving.
      */
     Notification validate() {
+        if (cooldownTicks < 0) cooldownTicks = cooldownTicksDefault;
+        servers.replaceAll(Notification::normalizeAddress);
+        servers.removeIf(String::isBlank);
         textStyle.validate();
         sound.validate();
 
@@ -417,98 +545,112 @@ public class Notification implements Functional.StringSupplier {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<Notification> {
-        @Override
-        public Notification deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static Notification deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of(
+                "sound", gson.getAdapter(Sound.class),
+                "textStyle", gson.getAdapter(TextStyle.class),
+                "triggers", gson.getAdapter(Trigger.class),
+                "inclusionTriggers", gson.getAdapter(Trigger.class),
+                "exclusionTriggers", gson.getAdapter(Trigger.class),
+                "responseMessages", gson.getAdapter(ResponseMessage.class)
+        ));
+        int version = fields.version();
+
+        boolean enabled = fields.getOrDefault("enabled",
+                enabledDefault);
 
-            boolean enabled = JsonUtil.getOrDefault(obj, "enabled",
-                    enabledDefault, silent);
+        boolean inclusionEnabled = fields.getOrDefault("inclusionEnabled",
+                inclusionEnabledDefault);
 
-            boolean inclusionEnabled = JsonUtil.getOrDefault(obj, "inclusionEnabled",
-                    inclusionEnabledDefault, silent);
+        boolean exclusionEnabled = fields.getOrDefault("exclusionEnabled",
+                exclusionEnabledDefault);
 
-            boolean exclusionEnabled = JsonUtil.getOrDefault(obj, "exclusionEnabled",
-                    exclusionEnabledDefault, silent);
+        CheckOwnMode checkOwnMode = fields.getOrDefault("checkOwnMode",
+                CheckOwnMode.class, CheckOwnMode.values()[0]);
 
-            CheckOwnMode checkOwnMode = JsonUtil.getOrDefault(obj, "checkOwnMode",
-                    CheckOwnMode.class, CheckOwnMode.values()[0], silent);
+        boolean responseEnabled = fields.getOrDefault("responseEnabled",
+                responseEnabledDefault);
 
-            boolean responseEnabled = JsonUtil.getOrDefault(obj, "responseEnabled",
-                    responseEnabledDefault, silent);
+        int cooldownTicks = fields.getOrDefault("cooldownTicks",
+                cooldownTicksDefault);
 
-            Sound sound = JsonUtil.getOrDefault(ctx, obj, "sound",
-                    Sound.class, soundDefault.get(), silent);
+        List<String> servers = fields.getOrDefault("servers",
+                serversDefault.get());
 
-            TextStyle textStyle = JsonUtil.getOrDefault(ctx, obj, "textStyle",
-                    TextStyle.class, textStyleDefault.get(), silent);
+        Sound sound = fields.getObjectOrDefault("sound",
+                Sound.class, soundDefault.get());
 
-            String replacementMsg = JsonUtil.getOrDefault(obj, "replacementMsg",
-                    replacementMsgDefault, silent);
+        TextStyle textStyle = fields.getObjectOrDefault("textStyle",
+                TextStyle.class, textStyleDefault.get());
 
-            boolean replacementMsgEnabled = JsonUtil.getOrDefault(obj, "replacementMsgEnabled",
-                    replacementMsgEnabledDefault, silent);
+        String replacementMsg = fields.getOrDefault("replacementMsg",
+                replacementMsgDefault);
 
-            String statusBarMsg = JsonUtil.getOrDefault(obj, "statusBarMsg",
-                    statusBarMsgDefault, silent);
+        boolean replacementMsgEnabled = fields.getOrDefault("replacementMsgEnabled",
+                replacementMsgEnabledDefault);
 
-            boolean statusBarMsgEnabled = JsonUtil.getOrDefault(obj, "statusBarMsgEnabled",
-                    statusBarMsgEnabledDefault, silent);
+        String statusBarMsg = fields.getOrDefault("statusBarMsg",
+                statusBarMsgDefault);
 
-            String titleMsg = JsonUtil.getOrDefault(obj, "titleMsg",
-                    titleMsgDefault, silent);
+        boolean statusBarMsgEnabled = fields.getOrDefault("statusBarMsgEnabled",
+                statusBarMsgEnabledDefault);
 
-            boolean titleMsgEnabled = JsonUtil.getOrDefault(obj, "titleMsgEnabled",
-                    titleMsgEnabledDefault, silent);
+        String titleMsg = fields.getOrDefault("titleMsg",
+                titleMsgDefault);
 
-            String toastMsg = JsonUtil.getOrDefault(obj, "toastMsg",
-                    toastMsgDefault, silent);
+        boolean titleMsgEnabled = fields.getOrDefault("titleMsgEnabled",
+                titleMsgEnabledDefault);
 
-            boolean toastMsgEnabled = JsonUtil.getOrDefault(obj, "toastMsgEnabled",
-                    toastMsgEnabledDefault, silent);
+        String toastMsg = fields.getOrDefault("toastMsg",
+                toastMsgDefault);
 
-            List<Trigger> triggers = JsonUtil.getOrDefault(ctx, obj, "triggers",
-                    Trigger.class, triggersDefault.get(), silent);
+        boolean toastMsgEnabled = fields.getOrDefault("toastMsgEnabled",
+                toastMsgEnabledDefault);
 
-            List<Trigger> inclusionTriggers = JsonUtil.getOrDefault(ctx, obj, "inclusionTriggers",
-                    Trigger.class, inclusionTriggersDefault.get(), silent);
+        List<Trigger> triggers = fields.getListOrDefault("triggers",
+                Trigger.class, triggersDefault.get());
 
-            List<Trigger> exclusionTriggers = JsonUtil.getOrDefault(ctx, obj, "exclusionTriggers",
-                    Trigger.class, exclusionTriggersDefault.get(), silent);
+        List<Trigger> inclusionTriggers = fields.getListOrDefault("inclusionTriggers",
+                Trigger.class, inclusionTriggersDefault.get());
 
-            List<ResponseMessage> responseMessages = JsonUtil.getOrDefault(ctx, obj, "responseMessages",
-                    ResponseMessage.class, responseMessagesDefault.get(), silent);
-            if (version <= 3) {
-                int totalDelay = 0;
-                for (ResponseMessage resMsg : responseMessages) {
-                    resMsg.delayTicks -= totalDelay;
-                    totalDelay += resMsg.delayTicks;
-                }
-            }
+        List<Trigger> exclusionTriggers = fields.getListOrDefault("exclusionTriggers",
+                Trigger.class, exclusionTriggersDefault.get());
 
-            return new Notification(
-                    enabled,
-                    checkOwnMode,
-                    inclusionEnabled,
-                    exclusionEnabled,
-                    responseEnabled,
-                    sound,
-                    textStyle,
-                    replacementMsg,
-                    replacementMsgEnabled,
-                    statusBarMsg,
-                    statusBarMsgEnabled,
-                    titleMsg,
-                    titleMsgEnabled,
-                    toastMsg,
-                    toastMsgEnabled,
-                    triggers,
-                    inclusionTriggers,
-                    exclusionTriggers,
-                    responseMessages
-            ).validate();
+        List<ResponseMessage> responseMessages = fields.getListOrDefault("responseMessages",
+                ResponseMessage.class, responseMessagesDefault.get());
+        if (version <= 3) {
+            int totalDelay = 0;
+            for (ResponseMessage resMsg : responseMessages) {
+                resMsg.delayTicks -= totalDelay;
+                totalDelay += resMsg.delayTicks;
+            }
         }
+
+        return new Notification(
+                enabled,
+                checkOwnMode,
+                inclusionEnabled,
+                exclusionEnabled,
+                responseEnabled,
+                cooldownTicks,
+                servers,
+                sound,
+                textStyle,
+                replacementMsg,
+                replacementMsgEnabled,
+                statusBarMsg,
+                statusBarMsgEnabled,
+                titleMsg,
+                titleMsgEnabled,
+                toastMsg,
+                toastMsgEnabled,
+                triggers,
+                inclusionTriggers,
+                exclusionTriggers,
+                responseMessages
+        ).validate();
     }
 }
\ No newline at end of file
@@ -16,12 +16,16 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import dev.terminalmc.chatnotify.util.Functional;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import dev.terminalmc.chatnotify.util.JsonFields;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.util.Map;
+
 public class ResponseMessage implements Functional.StringSupplier {
     public static final int VERSION = 2;
     public final int version = VERSION;
@@ -107,6 +111,16 @@ public class ResponseMessage implements Functional.StringSupplier {
         this.delayTicks = delayTicks;
     }
 
+    /**
+     * Copy constructor.
+     */
+    public ResponseMessage(ResponseMessage pResponseMessage) {
+        this.enabled = pResponseMessage.enabled;
+        this.string = pResponseMessage.string;
+        this.type = pResponseMessage.type;
+        this.delayTicks = pResponseMessage.delayTicks;
+    }
+
     @Override
     public @NotNull String getString() {
         return string;
@@ -124,31 +138,29 @@ public class ResponseMessage implements Functional.StringSupplier {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<ResponseMessage> {
-        @Override
-        public ResponseMessage deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static ResponseMessage deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of());
 
-            boolean enabled = JsonUtil.getOrDefault(obj, "enabled",
-                    enabledDefault, silent);
+        boolean enabled = fields.getOrDefault("enabled",
+                enabledDefault);
 
-            String string = JsonUtil.getOrDefault(obj, "string",
-                    stringDefault, silent);
+        String string = fields.getOrDefault("string",
+                stringDefault);
 
-            int delayTicks = JsonUtil.getOrDefault(obj, "delayTicks",
-                    delayTicksDefault, silent);
+        int delayTicks = fields.getOrDefault("delayTicks",
+                delayTicksDefault);
 
-            Type type = JsonUtil.getOrDefault(obj, "type",
-                    Type.class, Type.values()[0], silent);
+        Type type = fields.getOrDefault("type",
+                Type.class, Type.values()[0]);
 
-            return new ResponseMessage(
-                    enabled,
-                    string,
-                    type,
-                    delayTicks
-            ).validate();
-        }
+        return new ResponseMessage(
+                enabled,
+                string,
+                type,
+                delayTicks
+        ).validate();
     }
 }
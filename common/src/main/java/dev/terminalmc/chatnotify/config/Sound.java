@@ -16,11 +16,15 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import dev.terminalmc.chatnotify.util.JsonFields;
 import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.util.Map;
+
 public class Sound {
     public static final int VERSION = 1;
     public final int version = VERSION;
@@ -49,6 +53,11 @@ public class Sound {
     private float pitch;
     private static final float pitchDefault = 1.0F;
 
+    /**
+     * Cached {@link ResourceLocation} parsed from {@link Sound#id}.
+     */
+    private transient @Nullable ResourceLocation location;
+
     /**
      * Creates a default instance.
      */
@@ -83,6 +92,7 @@ public class Sound {
         this.id = pSound.id;
         this.volume = pSound.volume;
         this.pitch = pSound.pitch;
+        this.location = pSound.location;
     }
 
     public boolean isEnabled() {
@@ -116,6 +126,7 @@ public class Sound {
     public void setId(String id) {
         if (validId(id)) {
             this.id = id;
+            this.location = null;
         }
     }
 
@@ -123,7 +134,8 @@ public class Sound {
      * @return the sound {@link ResourceLocation}.
      */
     public @Nullable ResourceLocation getResourceLocation() {
-        return ResourceLocation.tryParse(id);
+        if (location == null) location = ResourceLocation.tryParse(id);
+        return location;
     }
 
     public float getVolume() {
@@ -173,6 +185,7 @@ public class Sound {
     Sound validate() {
         if (volume < 0 || volume > 1) volume = volumeDefault;
         if (pitch < 0.5 || pitch > 2) pitch = pitchDefault;
+        location = ResourceLocation.tryParse(id);
         return this;
     }
 
@@ -186,31 +199,29 @@ public class Sound {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<Sound> {
-        @Override
-        public Sound deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static Sound deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of());
 
-            boolean enabled = JsonUtil.getOrDefault(obj, "enabled",
-                    enabledDefault, silent);
+        boolean enabled = fields.getOrDefault("enabled",
+                enabledDefault);
 
-            String id = JsonUtil.getOrDefault(obj, "id",
-                    idDefault, silent);
+        String id = fields.getOrDefault("id",
+                idDefault);
 
-            float volume = JsonUtil.getOrDefault(obj, "volume",
-                    volumeDefault, silent);
+        float volume = fields.getOrDefault("volume",
+                volumeDefault);
 
-            float pitch = JsonUtil.getOrDefault(obj, "pitch",
-                    pitchDefault, silent);
+        float pitch = fields.getOrDefault("pitch",
+                pitchDefault);
 
-            return new Sound(
-                    enabled,
-                    id,
-                    volume,
-                    pitch
-            ).validate();
-        }
+        return new Sound(
+                enabled,
+                id,
+                volume,
+                pitch
+        ).validate();
     }
 }
@@ -16,16 +16,19 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import dev.terminalmc.chatnotify.ChatNotify;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import dev.terminalmc.chatnotify.util.JsonFields;
+import dev.terminalmc.chatnotify.util.PatternCompiler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class StyleTarget {
     public static final int VERSION = 2;
@@ -45,6 +48,14 @@ public class StyleTarget {
      */
     public transient final List<Integer> groupIndexes = new ArrayList<>();
 
+    /**
+     * The values of {@link StyleTarget#type} and {@link StyleTarget#string}
+     * when {@link StyleTarget#pattern} or {@link StyleTarget#groupIndexes}
+     * was last compiled, or {@code null} if not compiled.
+     */
+    private transient @Nullable Type compiledType;
+    private transient @Nullable String compiledString;
+
     // Options
 
     /**
@@ -119,16 +130,37 @@ public class StyleTarget {
         this.type = type;
     }
 
+    /**
+     * Copy constructor.
+     */
+    public StyleTarget(StyleTarget pStyleTarget) {
+        this.enabled = pStyleTarget.enabled;
+        this.string = pStyleTarget.string;
+        this.type = pStyleTarget.type;
+        this.pattern = pStyleTarget.pattern;
+        this.groupIndexes.addAll(pStyleTarget.groupIndexes);
+        this.compiledType = pStyleTarget.compiledType;
+        this.compiledString = pStyleTarget.compiledString;
+    }
+
+    /**
+     * @return {@code true} if {@link StyleTarget#pattern} or
+     * {@link StyleTarget#groupIndexes} was compiled from the current values of
+     * {@link StyleTarget#type} and {@link StyleTarget#string}.
+     */
+    public boolean isCompiledCurrent() {
+        return type == compiledType && string.equals(compiledString);
+    }
+
     public void tryCompilePattern() {
-        try {
-            pattern = Pattern.compile(string);
-        } catch (PatternSyntaxException e) {
-            ChatNotify.LOG.warn("Error processing regex: " + e);
-            pattern = null;
-        }
+        compiledType = Type.REGEX;
+        compiledString = string;
+        pattern = PatternCompiler.compile(string, 0);
     }
 
     public void tryParseIndexes() {
+        compiledType = Type.CAPTURING;
+        compiledString = string;
         groupIndexes.clear();
         String[] split = string.split(",");
         for (String str : split) {
@@ -152,27 +184,25 @@ public class StyleTarget {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<StyleTarget> {
-        @Override
-        public StyleTarget deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static StyleTarget deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of());
 
-            boolean enabled = JsonUtil.getOrDefault(obj, "enabled",
-                    enabledDefault, silent);
+        boolean enabled = fields.getOrDefault("enabled",
+                enabledDefault);
 
-            String string = JsonUtil.getOrDefault(obj, "string",
-                    stringDefault, silent);
+        String string = fields.getOrDefault("string",
+                stringDefault);
 
-            Type type = JsonUtil.getOrDefault(obj, "type",
-                    Type.class, Type.values()[0], silent);
+        Type type = fields.getOrDefault("type",
+                Type.class, Type.values()[0]);
 
-            return new StyleTarget(
-                    enabled,
-                    string,
-                    type
-            ).validate();
-        }
+        return new StyleTarget(
+                enabled,
+                string,
+                type
+        ).validate();
     }
 }
@@ -16,12 +16,14 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import dev.terminalmc.chatnotify.util.JsonFields;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.TextColor;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.util.Map;
 
 public class TextStyle {
     public static final int VERSION = 2;
@@ -96,6 +98,19 @@ public class TextStyle {
         this.obfuscated = obfuscated;
     }
 
+    /**
+     * Copy constructor.
+     */
+    public TextStyle(TextStyle pTextStyle) {
+        this.doColor = pTextStyle.doColor;
+        this.color = pTextStyle.color;
+        this.bold = pTextStyle.bold;
+        this.italic = pTextStyle.italic;
+        this.underlined = pTextStyle.underlined;
+        this.strikethrough = pTextStyle.strikethrough;
+        this.obfuscated = pTextStyle.obfuscated;
+    }
+
     public TextColor getTextColor() {
         return TextColor.fromRgb(color);
     }
@@ -136,43 +151,41 @@ public class TextStyle {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<TextStyle> {
-        @Override
-        public TextStyle deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static TextStyle deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of());
 
-            boolean doColor = JsonUtil.getOrDefault(obj, "doColor",
-                    doColorDefault, silent);
+        boolean doColor = fields.getOrDefault("doColor",
+                doColorDefault);
 
-            int color = JsonUtil.getOrDefault(obj, "color",
-                    colorDefault, silent);
+        int color = fields.getOrDefault("color",
+                colorDefault);
 
-            FormatMode bold = JsonUtil.getOrDefault(obj, "bold",
-                    FormatMode.class, FormatMode.values()[0], silent);
+        FormatMode bold = fields.getOrDefault("bold",
+                FormatMode.class, FormatMode.values()[0]);
 
-            FormatMode italic = JsonUtil.getOrDefault(obj, "italic",
-                    FormatMode.class, FormatMode.values()[0], silent);
+        FormatMode italic = fields.getOrDefault("italic",
+                FormatMode.class, FormatMode.values()[0]);
 
-            FormatMode underlined = JsonUtil.getOrDefault(obj, "underlined",
-                    FormatMode.class, FormatMode.values()[0], silent);
+        FormatMode underlined = fields.getOrDefault("underlined",
+                FormatMode.class, FormatMode.values()[0]);
 
-            FormatMode strikethrough = JsonUtil.getOrDefault(obj, "strikethrough",
-                    FormatMode.class, FormatMode.values()[0], silent);
+        FormatMode strikethrough = fields.getOrDefault("strikethrough",
+                FormatMode.class, FormatMode.values()[0]);
 
-            FormatMode obfuscated = JsonUtil.getOrDefault(obj, "obfuscated",
-                    FormatMode.class, FormatMode.values()[0], silent);
+        FormatMode obfuscated = fields.getOrDefault("obfuscated",
+                FormatMode.class, FormatMode.values()[0]);
 
-            return new TextStyle(
-                    doColor,
-                    color,
-                    bold,
-                    italic,
-                    underlined,
-                    strikethrough,
-                    obfuscated
-            ).validate();
-        }
+        return new TextStyle(
+                doColor,
+                color,
+                bold,
+                italic,
+                underlined,
+                strikethrough,
+                obfuscated
+        ).validate();
     }
 }
@@ -16,29 +16,75 @@
 
 package dev.terminalmc.chatnotify.config;
 
-import com.google.gson.*;
-import dev.terminalmc.chatnotify.ChatNotify;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import dev.terminalmc.chatnotify.util.Functional;
-import dev.terminalmc.chatnotify.util.JsonUtil;
+import dev.terminalmc.chatnotify.util.FuzzyPattern;
+import dev.terminalmc.chatnotify.util.JsonFields;
+import dev.terminalmc.chatnotify.util.PatternCompiler;
+import dev.terminalmc.chatnotify.util.WordList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class Trigger implements Functional.StringSupplier {
-    public static final int VERSION = 4;
+    public static final int VERSION = 5;
     public final int version = VERSION;
 
     /**
      * A regex {@link Pattern} compiled from {@link Trigger#string}, or 
-     * {@code null} if {@link Trigger#type} is not {@link Type#REGEX} or the 
-     * string could not be compiled.
+     * {@code null} if {@link Trigger#type} is not {@link Type#NORMAL} or
+     * {@link Type#REGEX} or the string could not be compiled.
+     *
+     * <p>For {@link Type#NORMAL}, the pattern is the word-boundary search
+     * pattern of {@link dev.terminalmc.chatnotify.util.MessageUtil#normalSearch}.
+     * </p>
      */
     public transient @Nullable Pattern pattern;
 
+    /**
+     * The {@link WordList} named by {@link Trigger#string}, or {@code null}
+     * if {@link Trigger#type} is not {@link Type#WORDS} or the file could not
+     * be read.
+     */
+    public transient @Nullable WordList wordList;
+
+    /**
+     * A {@link FuzzyPattern} compiled from {@link Trigger#string} and
+     * {@link Trigger#maxEdits}, or {@code null} if {@link Trigger#type} is
+     * not {@link Type#FUZZY}.
+     */
+    public transient @Nullable FuzzyPattern fuzzyPattern;
+
+    /**
+     * The values of {@link Trigger#type}, {@link Trigger#string} and
+     * {@link Trigger#maxEdits} when {@link Trigger#pattern},
+     * {@link Trigger#wordList} and {@link Trigger#fuzzyPattern} were last
+     * compiled, or {@code null} if not compiled.
+     */
+    private transient @Nullable Type patternType;
+    private transient @Nullable String patternString;
+    private transient int patternMaxEdits;
+
+    /**
+     * The index of this instance in the
+     * {@link dev.terminalmc.chatnotify.util.TriggerMetrics} arrays, or
+     * {@code -1} if not assigned.
+     */
+    public transient int metricsId = -1;
+
+    /**
+     * The instance this instance was copied from by
+     * {@link Notification#snapshot}, or {@code null} if it is not part of a
+     * snapshot.
+     */
+    public transient @Nullable Trigger source = null;
+
     // Options
 
     /**
@@ -75,7 +121,17 @@ public class Trigger implements Functional.StringSupplier {
         /**
          * Translation key substring matching.
          */
-        KEY("\uD83D\uDD11");
+        KEY("\uD83D\uDD11"),
+        /**
+         * Case-ignorant word-boundary matching of any word of a
+         * {@link WordList}, named by the trigger string.
+         */
+        WORDS("\uD83D\uDCC4"),
+        /**
+         * Case-ignorant approximate matching, within {@link Trigger#maxEdits}
+         * edits.
+         */
+        FUZZY("\u2248");
 
         public final String icon;
 
@@ -84,6 +140,15 @@ public class Trigger implements Functional.StringSupplier {
         }
     }
 
+    /**
+     * The maximum number of edits (insertions, deletions or substitutions) of
+     * a {@link Type#FUZZY} match.
+     */
+    public int maxEdits;
+    public static final int maxEditsDefault = 1;
+    public static final int maxEditsMin = 1;
+    public static final int maxEditsMax = 3;
+
     /**
      * Creates a default instance.
      */
@@ -99,7 +164,8 @@ public class Trigger implements Functional.StringSupplier {
                 enabledDefault,
                 string,
                 styleTargetDefault.get(),
-                Type.values()[0]
+                Type.values()[0],
+                maxEditsDefault
         );
     }
 
@@ -110,12 +176,31 @@ public class Trigger implements Functional.StringSupplier {
             boolean enabled,
             @NotNull String string,
             StyleTarget styleTarget,
-            Type type
+            Type type,
+            int maxEdits
     ) {
         this.enabled = enabled;
         this.string = string;
         this.styleTarget = styleTarget;
         this.type = type;
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Copy constructor.
+     */
+    public Trigger(Trigger pTrigger) {
+        this.enabled = pTrigger.enabled;
+        this.string = pTrigger.string;
+        this.styleTarget = new StyleTarget(pTrigger.styleTarget);
+        this.type = pTrigger.type;
+        this.maxEdits = pTrigger.maxEdits;
+        this.pattern = pTrigger.pattern;
+        this.wordList = pTrigger.wordList;
+        this.fuzzyPattern = pTrigger.fuzzyPattern;
+        this.patternType = pTrigger.patternType;
+        this.patternString = pTrigger.patternString;
+        this.patternMaxEdits = pTrigger.patternMaxEdits;
     }
 
     @Override
@@ -123,13 +208,26 @@ public class Trigger implements Functional.StringSupplier {
         return string;
     }
 
+    /**
+     * @return {@code true} if {@link Trigger#pattern},
+     * {@link Trigger#wordList} and {@link Trigger#fuzzyPattern} were compiled
+     * from the current values of {@link Trigger#type}, {@link Trigger#string}
+     * and {@link Trigger#maxEdits}, and the word list file has not been
+     * modified since.
+     */
+    public boolean isPatternCurrent() {
+        return type == patternType && string.equals(patternString)
+                && maxEdits == patternMaxEdits
+                && (type != Type.WORDS || (wordList != null && wordList.isCurrent()));
+    }
+
     public void tryCompilePattern() {
-        try {
-            pattern = Pattern.compile(string);
-        } catch (PatternSyntaxException e) {
-            ChatNotify.LOG.warn("ChatNotify: Error processing regex: " + e);
-            pattern = null;
-        }
+        patternType = type;
+        patternString = string;
+        patternMaxEdits = maxEdits;
+        pattern = PatternCompiler.compile(this);
+        wordList = type == Type.WORDS ? WordList.get(string) : null;
+        fuzzyPattern = type == Type.FUZZY ? FuzzyPattern.compile(string, maxEdits) : null;
     }
 
     // Validation
@@ -139,6 +237,7 @@ public class Trigger implements Functional.StringSupplier {
      */
     Trigger validate() {
         if (type == Type.KEY) string = string.toLowerCase(Locale.ROOT);
+        if (maxEdits < maxEditsMin || maxEdits > maxEditsMax) maxEdits = maxEditsDefault;
         styleTarget.validate();
         if (styleTarget.string.isBlank()) styleTarget.enabled = false;
         return this;
@@ -146,43 +245,48 @@ public class Trigger implements Functional.StringSupplier {
 
     // Deserialization
 
-    public static class Deserializer implements JsonDeserializer<Trigger> {
-        @Override
-        public Trigger deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext ctx) throws JsonParseException {
-            JsonObject obj = json.getAsJsonObject();
-            int version = obj.get("version").getAsInt();
-            boolean silent = version != VERSION;
-
-            boolean enabled = JsonUtil.getOrDefault(obj, "enabled",
-                    enabledDefault, silent);
-
-            String string = JsonUtil.getOrDefault(obj, "string",
-                    stringDefault, silent);
-
-            StyleTarget styleTarget;
-            if (version < 4) { // 2025-01-19
-                String styleString = JsonUtil.getOrDefault(obj, "styleString",
-                        stringDefault, silent);
-                styleTarget = new StyleTarget(styleString);
-            } else {
-                styleTarget = JsonUtil.getOrDefault(ctx, obj, "styleTarget",
-                        StyleTarget.class, styleTargetDefault.get(), silent);
-            }
-
-            Type type = JsonUtil.getOrDefault(obj, "type",
-                    Type.class, Type.values()[0], silent);
-            if (version < 3) { // 2024-08-25
-                boolean isKey = JsonUtil.getOrDefault(obj, "isKey", false, silent);
-                boolean isRegex = JsonUtil.getOrDefault(obj, "isRegex", false, silent);
-                type = isKey ? Type.KEY : (isRegex ? Type.REGEX : Type.NORMAL);
-            }
-
-            return new Trigger(
-                    enabled,
-                    string,
-                    styleTarget,
-                    type
-            ).validate();
+    /**
+     * Reads an instance from the next JSON object.
+     */
+    static Trigger deserialize(Gson gson, JsonReader in) throws IOException {
+        JsonFields fields = JsonFields.read(in, VERSION, Map.of(
+                "styleTarget", gson.getAdapter(StyleTarget.class)
+        ));
+        int version = fields.version();
+
+        boolean enabled = fields.getOrDefault("enabled",
+                enabledDefault);
+
+        String string = fields.getOrDefault("string",
+                stringDefault);
+
+        StyleTarget styleTarget;
+        if (version < 4) { // 2025-01-19
+            String styleString = fields.getOrDefault("styleString",
+                    stringDefault);
+            styleTarget = new StyleTarget(styleString);
+        } else {
+            styleTarget = fields.getObjectOrDefault("styleTarget",
+                    StyleTarget.class, styleTargetDefault.get());
         }
+
+        Type type = fields.getOrDefault("type",
+                Type.class, Type.values()[0]);
+        if (version < 3) { // 2024-08-25
+            boolean isKey = fields.getOrDefault("isKey", false);
+            boolean isRegex = fields.getOrDefault("isRegex", false);
+            type = isKey ? Type.KEY : (isRegex ? Type.REGEX : Type.NORMAL);
+        }
+
+        int maxEdits = fields.getOrDefault("maxEdits",
+                maxEditsDefault);
+
+        return new Trigger(
+                enabled,
+                string,
+                styleTarget,
+                type,
+                maxEdits
+        ).validate();
     }
 }
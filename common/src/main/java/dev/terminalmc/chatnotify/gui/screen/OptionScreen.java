@@ -18,6 +18,7 @@ package dev.terminalmc.chatnotify.gui.screen;
 
 import com.mojang.blaze3d.platform.InputConstants;
 import com.mojang.blaze3d.platform.Window;
+import dev.terminalmc.chatnotify.config.ConfigWatcher;
 import dev.terminalmc.chatnotify.gui.widget.HorizontalList;
 import dev.terminalmc.chatnotify.gui.widget.OverlayWidget;
 import dev.terminalmc.chatnotify.gui.widget.list.OptionList;
@@ -174,6 +175,24 @@ public abstract class OptionScreen extends OptionsSubScreen {
         // this method is not used.
     }
 
+    /**
+     * Changed config files are not applied while any {@link OptionScreen} is
+     * displayed. Moving between option screens removes one and adds the
+     * next within the same tick, so the config is not replaced in between.
+     */
+    @Override
+    public void added() {
+        super.added();
+        ConfigWatcher.setEditing(true);
+    }
+
+    @Override
+    public void removed() {
+        if (list != null) list.removed();
+        ConfigWatcher.setEditing(false);
+        super.removed();
+    }
+
     @Override
     public void onClose() {
         if (lastScreen instanceof OptionScreen screen) {
@@ -209,6 +228,7 @@ public abstract class OptionScreen extends OptionsSubScreen {
     }
 
     private void setList(@NotNull OptionList list) {
+        if (this.list != null && this.list != list) this.list.removed();
         this.list = list;
         this.list.setScreen(this);
         init();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.gui.screen;
+
+import dev.terminalmc.chatnotify.gui.widget.list.root.StatsList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.Screen;
+
+import java.util.List;
+
+import static dev.terminalmc.chatnotify.util.Localization.translationKey;
+
+/**
+ * Supports a {@link StatsList} to display trigger metrics.
+ */
+public class StatsScreen extends OptionScreen {
+
+    public StatsScreen(Screen lastScreen) {
+        super(lastScreen);
+        addTabs();
+    }
+
+    private void addTabs() {
+        List<Tab> tabs = List.of(
+                new Tab(TabKey.STATS.key, (screen) ->
+                        new StatsList(Minecraft.getInstance(), 0, 0, 0,
+                                BASE_LIST_ENTRY_WIDTH, LIST_ENTRY_HEIGHT, LIST_ENTRY_SPACING
+                        ))
+        );
+        super.setTabs(tabs, TabKey.STATS.key);
+    }
+
+    public enum TabKey {
+        STATS(translationKey("option", "stats"));
+
+        public final String key;
+        TabKey(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -16,7 +16,7 @@
 
 package dev.terminalmc.chatnotify.gui.toast;
 
-import net.minecraft.client.Minecraft;
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.toasts.Toast;
@@ -25,6 +25,7 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.FormattedCharSequence;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -38,18 +39,56 @@ public class NotificationToast implements Toast {
     private static final int Y_MARGIN = 6;
     private static final int LINE_SPACE = 3;
 
-    private final int lineHeight;
-    private final List<FormattedCharSequence> messageLines;
+    private final Object token;
+    private Component message;
+    private int count = 1;
+    private boolean changed;
+    private long lastChanged;
+
+    // Layout, built on first render after a change
+    private int lineHeight;
+    private @Nullable List<FormattedCharSequence> messageLines;
 
     public NotificationToast(Component message) {
-        this.messageLines = Minecraft.getInstance().font.split(message, WIDTH - X_MARGIN * 2);
-        this.lineHeight = Minecraft.getInstance().font.lineHeight + LINE_SPACE;
+        this(message, NO_TOKEN);
+    }
+
+    /**
+     * @param message the message to display.
+     * @param token the token used to find this toast for later activations,
+     *              via {@link ToastComponent#getToast}.
+     */
+    public NotificationToast(Component message, Object token) {
+        this.message = message;
+        this.token = token;
+    }
+
+    /**
+     * Merges a repeat activation into this toast, replacing the message,
+     * incrementing the displayed count and restarting the display time.
+     * @param message the latest message.
+     */
+    public void addActivation(Component message) {
+        this.message = message;
+        this.count++;
+        this.changed = true;
+        this.messageLines = null;
+    }
+
+    @Override
+    public @NotNull Object getToken() {
+        return token;
     }
 
     @Override
     public @NotNull Visibility render(@NotNull GuiGraphics graphics,
                                       @NotNull ToastComponent component, long elapsedTime) {
+        if (changed) {
+            lastChanged = elapsedTime;
+            changed = false;
+        }
         Font font = component.getMinecraft().font;
+        List<FormattedCharSequence> messageLines = getMessageLines(font);
         if (messageLines.size() <= 1) {
             // Message fits in a single line, render a single sprite
             graphics.blitSprite(BACKGROUND_SPRITE, 0, 0, WIDTH, height());
@@ -89,10 +128,22 @@ public class NotificationToast implements Toast {
             }
         }
 
-        return elapsedTime < DISPLAY_TIME * component.getNotificationDisplayTimeMultiplier()
+        return elapsedTime - lastChanged < DISPLAY_TIME * component.getNotificationDisplayTimeMultiplier()
                 ? Visibility.SHOW : Visibility.HIDE;
     }
 
+    private List<FormattedCharSequence> getMessageLines(Font font) {
+        if (messageLines == null) {
+            Component text = count == 1
+                    ? message
+                    : message.copy().append(Component.literal(" \u00d7" + count)
+                            .withStyle(ChatFormatting.GRAY));
+            messageLines = font.split(text, WIDTH - X_MARGIN * 2);
+            lineHeight = font.lineHeight + LINE_SPACE;
+        }
+        return messageLines;
+    }
+
     private void renderBackgroundRow(GuiGraphics graphics, int width, int vOffset,
                                      int y, int vHeight) {
         int uWidth = vOffset == 0 ? 20 : 5;
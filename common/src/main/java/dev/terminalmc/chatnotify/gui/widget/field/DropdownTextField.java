@@ -19,6 +19,7 @@ package dev.terminalmc.chatnotify.gui.widget.field;
 import com.mojang.blaze3d.platform.InputConstants;
 import dev.terminalmc.chatnotify.gui.widget.OverlayWidget;
 import dev.terminalmc.chatnotify.gui.widget.ExpandingList;
+import dev.terminalmc.chatnotify.util.CustomSounds;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
@@ -27,7 +28,6 @@ import net.minecraft.client.gui.components.AbstractWidget;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.StringWidget;
 import net.minecraft.client.gui.screens.Screen;
-import net.minecraft.client.resources.sounds.SimpleSoundInstance;
 import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.client.sounds.SoundManager;
 import net.minecraft.network.chat.Component;
@@ -328,11 +328,9 @@ public class DropdownTextField extends OverlayWidget {
         @Override
         public void playDownSound(@NotNull SoundManager soundManager) {
             if (lastSound != null) soundManager.stop(lastSound);
-            lastSound = new SimpleSoundInstance(
+            lastSound = CustomSounds.createInstance(
                     ResourceLocation.parse(getMessage().getString()),
-                    SoundSource.MASTER, 1.0F, 1.0F,
-                    SoundInstance.createUnseededRandom(), false, 0,
-                    SoundInstance.Attenuation.NONE, 0, 0, 0, true);
+                    SoundSource.MASTER, 1.0F, 1.0F);
             soundManager.play(lastSound);
         }
     }
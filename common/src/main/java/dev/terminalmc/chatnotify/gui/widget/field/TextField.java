@@ -20,6 +20,7 @@ import com.mojang.blaze3d.platform.InputConstants;
 import dev.terminalmc.chatnotify.config.Notification;
 import dev.terminalmc.chatnotify.config.Trigger;
 import dev.terminalmc.chatnotify.util.ColorUtil;
+import dev.terminalmc.chatnotify.util.CustomSounds;
 import net.minecraft.ChatFormatting;
 import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
@@ -40,6 +41,8 @@ import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static dev.terminalmc.chatnotify.util.Localization.localized;
 
@@ -326,9 +329,10 @@ public class TextField extends EditBox {
         }
 
         class Sound implements Validator {
-            private final Set<String> sounds = new HashSet<>(Minecraft.getInstance()
-                    .getSoundManager().getAvailableSounds().stream()
-                    .map(ResourceLocation::toString).toList());
+            private final Set<String> sounds = Stream.concat(Minecraft.getInstance()
+                    .getSoundManager().getAvailableSounds().stream(),
+                    CustomSounds.getLocations().stream())
+                    .map(ResourceLocation::toString).collect(Collectors.toSet());
 
             @Override
             public Optional<Component> validate(String str) {
@@ -144,6 +144,14 @@ public abstract class OptionList extends ContainerObjectSelectionList<OptionList
      */
     protected abstract void addEntries();
 
+    /**
+     * Called when the screen displaying the {@link OptionList} is removed, or
+     * the {@link OptionList} is replaced by another. The {@link OptionList}
+     * may be initialized again later.
+     */
+    public void removed() {
+    }
+
     /**
      * Updates the size and position of the {@link OptionList}, then initializes
      * it to update list entries.
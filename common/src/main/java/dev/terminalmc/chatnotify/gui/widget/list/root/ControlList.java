@@ -17,12 +17,16 @@
 package dev.terminalmc.chatnotify.gui.widget.list.root;
 
 import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.gui.screen.StatsScreen;
+import dev.terminalmc.chatnotify.gui.widget.field.TextField;
 import dev.terminalmc.chatnotify.gui.widget.list.OptionList;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.components.*;
 import net.minecraft.network.chat.CommonComponents;
 
+import java.time.Duration;
+
 import static dev.terminalmc.chatnotify.util.Localization.localized;
 
 public class ControlList extends OptionList {
@@ -37,6 +41,12 @@ public class ControlList extends OptionList {
         addEntry(new Entry.Controls2(dynEntryX, dynEntryWidth, entryHeight));
         addEntry(new Entry.Controls3(dynEntryX, dynEntryWidth, entryHeight));
         addEntry(new Entry.Controls4(dynEntryX, dynEntryWidth, entryHeight));
+        addEntry(new Entry.ChatHistorySize(dynEntryX, dynEntryWidth, entryHeight));
+        addEntry(new Entry.ChatLog(dynEntryX, dynEntryWidth, entryHeight));
+        addEntry(new OptionList.Entry.ActionButton(dynEntryX, dynEntryWidth, entryHeight,
+                localized("option", "control.stats"),
+                Tooltip.create(localized("option", "control.stats.tooltip")), 500,
+                (button) -> mc.setScreen(new StatsScreen(mc.screen))));
     }
 
     // Custom entries
@@ -145,5 +155,50 @@ public class ControlList extends OptionList {
                                         Config.get().senderDetectionMode = status));
             }
         }
+
+        private static class ChatHistorySize extends Entry {
+            ChatHistorySize(int x, int width, int height) {
+                super();
+                int fieldWidth = 60;
+                int labelWidth = width - fieldWidth - SPACE;
+
+                Button labelButton = Button.builder(localized("option", "control.chat_history_size"),
+                                (button -> {}))
+                        .pos(x, 0)
+                        .size(labelWidth, height)
+                        .build();
+                labelButton.active = false;
+                elements.add(labelButton);
+
+                TextField sizeField = new TextField(x + width - fieldWidth, 0,
+                        fieldWidth, height);
+                sizeField.posIntValidator().strict();
+                sizeField.setTooltip(Tooltip.create(localized(
+                        "option", "control.chat_history_size.tooltip",
+                        Config.chatHistorySizeMax)));
+                sizeField.setTooltipDelay(Duration.ofMillis(500));
+                sizeField.setMaxLength(6);
+                sizeField.setResponder((str) ->
+                        Config.get().chatHistorySize = Integer.parseInt(str.strip()));
+                sizeField.setValue(String.valueOf(Config.get().chatHistorySize));
+                elements.add(sizeField);
+            }
+        }
+
+        private static class ChatLog extends Entry {
+            ChatLog(int x, int width, int height) {
+                super();
+
+                elements.add(CycleButton.booleanBuilder(
+                                CommonComponents.OPTION_ON.copy().withStyle(ChatFormatting.GREEN),
+                                CommonComponents.OPTION_OFF.copy().withStyle(ChatFormatting.RED))
+                        .withInitialValue(Config.get().chatLogEnabled)
+                        .withTooltip((status) -> Tooltip.create(localized(
+                                "option", "control.chat_log.tooltip")))
+                        .create(x, 0, width, height,
+                                localized("option", "control.chat_log"),
+                                (button, status) -> Config.get().chatLogEnabled = status));
+            }
+        }
     }
 }
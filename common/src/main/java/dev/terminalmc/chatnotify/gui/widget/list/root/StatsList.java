@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.gui.widget.list.root;
+
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Trigger;
+import dev.terminalmc.chatnotify.gui.widget.list.OptionList;
+import dev.terminalmc.chatnotify.util.TriggerMetrics;
+import dev.terminalmc.chatnotify.util.WordList;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.*;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static dev.terminalmc.chatnotify.util.Localization.localized;
+
+/**
+ * Displays the {@link TriggerMetrics} of each {@link Trigger}, sorted by the
+ * selected {@link Sort}.
+ */
+public class StatsList extends OptionList {
+    private static Sort sort = Sort.COST;
+
+    public enum Sort {
+        COST,
+        AVERAGE,
+        EVALUATIONS,
+        HITS,
+    }
+
+    public StatsList(Minecraft mc, int width, int height, int y, int entryWidth,
+                     int entryHeight, int entrySpacing) {
+        super(mc, width, height, y, entryWidth, entryHeight, entrySpacing);
+    }
+
+    @Override
+    protected void addEntries() {
+        TriggerMetrics.Table table = TriggerMetrics.get();
+
+        addEntry(new Entry.Controls(dynWideEntryX, dynWideEntryWidth, entryHeight, this));
+
+        long evaluations = 0;
+        long nanos = 0;
+        for (int i = 0; i < table.size(); i++) {
+            evaluations += table.evaluations.get(i);
+            nanos += table.nanos.get(i);
+        }
+        addEntry(new OptionList.Entry.Text(dynWideEntryX, dynWideEntryWidth, entryHeight,
+                localized("option", "stats.summary", table.size(), evaluations,
+                        String.format("%.1f", nanos / 1e6),
+                        formatDuration(System.currentTimeMillis() - table.startTime)),
+                null, -1));
+
+        Comparator<Integer> comparator = switch(sort) {
+            case COST -> Comparator.comparingLong((i) -> table.nanos.get(i));
+            case AVERAGE -> Comparator.comparingDouble((i) -> average(table, i));
+            case EVALUATIONS -> Comparator.comparingLong((i) -> table.evaluations.get(i));
+            case HITS -> Comparator.comparingLong((i) -> table.hits.get(i));
+        };
+        IntStream.range(0, table.size()).boxed()
+                .sorted(comparator.reversed())
+                .forEach((i) -> addEntry(new Entry.TriggerStats(
+                        dynWideEntryX, dynWideEntryWidth, entryHeight, table, i)));
+    }
+
+    private static double average(TriggerMetrics.Table table, int i) {
+        long evaluations = table.evaluations.get(i);
+        return evaluations == 0 ? 0 : (double)table.nanos.get(i) / evaluations;
+    }
+
+    private static String formatDuration(long millis) {
+        long minutes = millis / 60000;
+        return minutes < 60
+                ? String.format("%dm", minutes)
+                : String.format("%dh %dm", minutes / 60, minutes % 60);
+    }
+
+    // Custom entries
+
+    private abstract static class Entry extends OptionList.Entry {
+
+        private static class Controls extends Entry {
+            Controls(int x, int width, int height, StatsList list) {
+                super();
+                int buttonWidth = (width - SPACE) / 2;
+
+                elements.add(CycleButton.<Sort>builder((status) ->
+                                localized("option", "stats.sort.status." + status.name()))
+                        .withValues(Sort.values())
+                        .withInitialValue(sort)
+                        .create(x, 0, buttonWidth, height,
+                                localized("option", "stats.sort"),
+                                (button, status) -> {
+                                    sort = status;
+                                    list.init();
+                                }));
+
+                Button resetButton = Button.builder(localized("option", "stats.reset"),
+                                (button) -> {
+                                    TriggerMetrics.reset(Config.get());
+                                    list.init();
+                                })
+                        .pos(x + width - buttonWidth, 0)
+                        .size(buttonWidth, height)
+                        .build();
+                resetButton.setTooltip(Tooltip.create(localized("option", "stats.reset.tooltip")));
+                resetButton.setTooltipDelay(Duration.ofMillis(500));
+                elements.add(resetButton);
+            }
+        }
+
+        private static class TriggerStats extends Entry {
+            TriggerStats(int x, int width, int height, TriggerMetrics.Table table, int i) {
+                super();
+                int labelWidth = width * 2 / 5;
+                int statsWidth = width - labelWidth - SPACE;
+                Minecraft mc = Minecraft.getInstance();
+                Trigger trig = table.triggers.get(i);
+                int notifIndex = table.notifIndexes[i];
+
+                StringWidget label = new StringWidget(x, 0, labelWidth, height,
+                        Component.literal(String.format("#%d %s ", notifIndex, trig.type.icon))
+                                .withStyle(ChatFormatting.GRAY)
+                                .append(Component.literal(trig.string)
+                                        .withStyle(ChatFormatting.WHITE)), mc.font)
+                        .alignLeft();
+                elements.add(label);
+
+                StringWidget stats = new StringWidget(x + width - statsWidth, 0,
+                        statsWidth, height, localized("option", "stats.trigger",
+                        String.format("%.1f", table.nanos.get(i) / 1e6),
+                        String.format("%.2f", average(table, i) / 1e3),
+                        table.evaluations.get(i), table.hits.get(i)), mc.font)
+                        .alignRight();
+                stats.setTooltip(Tooltip.create(tooltip(table, i, notifIndex)));
+                stats.setTooltipDelay(Duration.ofMillis(500));
+                elements.add(stats);
+            }
+
+            private static Component tooltip(TriggerMetrics.Table table, int i, int notifIndex) {
+                MutableComponent histogram = Component.empty();
+                for (int b = 0; b < TriggerMetrics.BUCKETS; b++) {
+                    long count = table.histogram.get(i * TriggerMetrics.BUCKETS + b);
+                    histogram.append("\n").append(b < TriggerMetrics.BUCKETS - 1
+                            ? localized("option", "stats.bucket", 1L << (2 * b), count)
+                            : localized("option", "stats.bucket.last", 1L << (2 * (b - 1)), count));
+                }
+                MutableComponent tooltip = localized("option", "stats.trigger.tooltip", notifIndex,
+                        table.inclusionRejects.get(i), table.exclusionRejects.get(i), histogram);
+                WordList words = table.triggers.get(i).wordList;
+                if (words != null) {
+                    tooltip.append("\n\n").append(localized("option", "stats.trigger.words",
+                            words.size(), words.states(),
+                            String.format("%.1f", words.memoryBytes() / 1024.0)));
+                }
+                return tooltip;
+            }
+        }
+    }
+}
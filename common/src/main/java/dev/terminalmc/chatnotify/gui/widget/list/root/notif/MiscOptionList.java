@@ -27,6 +27,7 @@ import net.minecraft.client.gui.screens.ConfirmScreen;
 import net.minecraft.network.chat.CommonComponents;
 import net.minecraft.network.chat.Component;
 
+import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -48,6 +49,10 @@ public class MiscOptionList extends OptionList {
         addEntry(new OptionList.Entry.Text(entryX, entryWidth, entryHeight,
                 localized("option", "notif.misc.control"), null, -1));
         addEntry(new Entry.Controls(entryX, entryWidth, entryHeight, notif));
+        addEntry(new Entry.Cooldown(entryX, entryWidth, entryHeight, notif));
+        if (notif != Config.get().getNotifs().getFirst()) {
+            addEntry(new Entry.Servers(entryX, entryWidth, entryHeight, notif));
+        }
 
         addEntry(new OptionList.Entry.Text(entryX, entryWidth, entryHeight,
                 localized("option", "notif.misc.msg", "ℹ"),
@@ -130,6 +135,57 @@ public class MiscOptionList extends OptionList {
             }
         }
 
+        private static class Cooldown extends Entry {
+            Cooldown(int x, int width, int height, Notification notif) {
+                super();
+                int fieldWidth = 60;
+                int labelWidth = width - fieldWidth - SPACE;
+
+                Button labelButton = Button.builder(localized("option", "notif.misc.cooldown"),
+                                (button -> {}))
+                        .pos(x, 0)
+                        .size(labelWidth, height)
+                        .build();
+                labelButton.active = false;
+                elements.add(labelButton);
+
+                TextField cooldownField = new TextField(x + width - fieldWidth, 0,
+                        fieldWidth, height);
+                cooldownField.posIntValidator().strict();
+                cooldownField.setTooltip(Tooltip.create(localized(
+                        "option", "notif.misc.cooldown.tooltip")));
+                cooldownField.setTooltipDelay(Duration.ofMillis(500));
+                cooldownField.setMaxLength(5);
+                cooldownField.setResponder((str) ->
+                        notif.cooldownTicks = Integer.parseInt(str.strip()));
+                cooldownField.setValue(String.valueOf(notif.cooldownTicks));
+                elements.add(cooldownField);
+            }
+        }
+
+        private static class Servers extends Entry {
+            Servers(int x, int width, int height, Notification notif) {
+                super();
+
+                TextField serversField = new TextField(x, 0, width, height);
+                serversField.setMaxLength(256);
+                serversField.setValue(String.join(", ", notif.servers));
+                serversField.setResponder((str) -> {
+                    notif.servers.clear();
+                    for (String address : str.split(",")) {
+                        if (!address.isBlank()) {
+                            notif.servers.add(Notification.normalizeAddress(address));
+                        }
+                    }
+                });
+                serversField.setHint(localized("option", "notif.misc.servers.hint"));
+                serversField.setTooltip(Tooltip.create(localized(
+                        "option", "notif.misc.servers.tooltip")));
+                serversField.setTooltipDelay(Duration.ofMillis(500));
+                elements.add(serversField);
+            }
+        }
+
         private static class CustomMessage extends Entry {
             CustomMessage(int x, int width, int height,
                           Supplier<String> textSupplier, Consumer<String> textConsumer,
@@ -23,19 +23,22 @@ import dev.terminalmc.chatnotify.gui.widget.field.FakeTextField;
 import dev.terminalmc.chatnotify.gui.widget.SilentButton;
 import dev.terminalmc.chatnotify.gui.widget.field.TextField;
 import dev.terminalmc.chatnotify.gui.widget.list.OptionList;
+import dev.terminalmc.chatnotify.util.CustomSounds;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.CycleButton;
 import net.minecraft.client.gui.components.Tooltip;
 import net.minecraft.client.gui.screens.options.SoundOptionsScreen;
-import net.minecraft.client.resources.sounds.SimpleSoundInstance;
 import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.network.chat.CommonComponents;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.stream.Stream;
+
 import static dev.terminalmc.chatnotify.util.Localization.localized;
 
 public class SoundList extends OptionList {
@@ -139,6 +142,7 @@ public class SoundList extends OptionList {
                 button -> playNotifSound()));
 
         addEntry(new Entry.SoundSource(entryX, entryWidth, entryHeight, this));
+        addEntry(new Entry.SoundWindow(entryX, entryWidth, entryHeight));
 
         addEntry(new OptionList.Entry.Text(entryX, entryWidth, entryHeight,
                 localized("sound", "group.noteblock"), null, -1));
@@ -181,12 +185,10 @@ public class SoundList extends OptionList {
         ResourceLocation location = sound.getResourceLocation();
         if (location != null) {
             if (lastSound != null) mc.getSoundManager().stop(lastSound);
-            lastSound = new SimpleSoundInstance(
+            lastSound = CustomSounds.createInstance(
                     location,
                     Config.get().soundSource,
-                    sound.getVolume(), sound.getPitch(),
-                    SoundInstance.createUnseededRandom(), false, 0,
-                    SoundInstance.Attenuation.NONE, 0, 0, 0, true);
+                    sound.getVolume(), sound.getPitch());
             mc.getSoundManager().play(lastSound);
         }
     }
@@ -216,8 +218,10 @@ public class SoundList extends OptionList {
                                     wX, wY, wWidth, wHeight, Component.empty(),
                                     sound::getId, sound::setId,
                                     (widget) -> list.init(),
-                                    Minecraft.getInstance().getSoundManager().getAvailableSounds()
-                                    .stream().map(ResourceLocation::toString).sorted().toList())
+                                    Stream.concat(Minecraft.getInstance().getSoundManager()
+                                            .getAvailableSounds().stream(),
+                                            CustomSounds.getLocations().stream())
+                                    .map(ResourceLocation::toString).sorted().toList())
                                     .withSoundDropType());
                         });
                 soundField.soundValidator();
@@ -266,6 +270,34 @@ public class SoundList extends OptionList {
             }
         }
 
+        private static class SoundWindow extends Entry {
+            SoundWindow(int x, int width, int height) {
+                super();
+                int fieldWidth = 60;
+                int labelWidth = width - fieldWidth - SPACE_TINY;
+
+                Button labelButton = Button.builder(localized("option", "notif.sound.window"),
+                                (button -> {}))
+                        .pos(x, 0)
+                        .size(labelWidth, height)
+                        .build();
+                labelButton.active = false;
+                elements.add(labelButton);
+
+                TextField windowField = new TextField(x + width - fieldWidth, 0,
+                        fieldWidth, height);
+                windowField.posIntValidator().strict();
+                windowField.setTooltip(Tooltip.create(localized(
+                        "option", "notif.sound.window.tooltip")));
+                windowField.setTooltipDelay(Duration.ofMillis(500));
+                windowField.setMaxLength(5);
+                windowField.setResponder((str) ->
+                        Config.get().soundWindowTicks = Integer.parseInt(str.strip()));
+                windowField.setValue(String.valueOf(Config.get().soundWindowTicks));
+                elements.add(windowField);
+            }
+        }
+
         private static class SoundOption extends Entry {
             SoundOption(int x, int width, int height, SoundList list, Sound sound,
                         String soundId1, @Nullable String soundId2) {
@@ -23,30 +23,59 @@ import dev.terminalmc.chatnotify.gui.widget.HsvColorPicker;
 import dev.terminalmc.chatnotify.gui.widget.field.MultiLineTextField;
 import dev.terminalmc.chatnotify.gui.widget.field.TextField;
 import dev.terminalmc.chatnotify.gui.widget.list.OptionList;
-import dev.terminalmc.chatnotify.util.FormatUtil;
+import dev.terminalmc.chatnotify.util.ChatHistory;
+import dev.terminalmc.chatnotify.util.ChatLog;
+import dev.terminalmc.chatnotify.util.FuzzyPattern;
 import dev.terminalmc.chatnotify.util.MessageUtil;
 import dev.terminalmc.chatnotify.util.StyleUtil;
+import dev.terminalmc.chatnotify.util.WordList;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.*;
+import net.minecraft.core.HolderLookup;
 import net.minecraft.network.chat.CommonComponents;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.Style;
-import net.minecraft.network.chat.contents.TranslatableContents;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.IntStream;
 
 import static dev.terminalmc.chatnotify.util.Localization.localized;
 
 public class TriggerEditorList extends OptionList {
+    private static final long PREVIEW_DEBOUNCE_MILLIS = 150;
+    private static final int PREVIEW_BATCH_SIZE = 50;
+    private static final ScheduledExecutorService PREVIEW_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " Trigger Preview");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record PreviewBatch(int generation, List<Pair<ChatHistory.Line, Component>> results,
+                                boolean last) {}
+
     private final Trigger trigger;
     private final TextStyle textStyle;
-    private final List<Component> recentChat;
+    private final CompletableFuture<List<ChatHistory.Line>> recentChat;
     private boolean filter;
     private boolean restyle;
     private MultiLineTextField textDisplayField;
@@ -54,13 +83,29 @@ public class TriggerEditorList extends OptionList {
     private TextField keyDisplayField;
     private String displayKey = "";
 
+    // Chat message list
+    private final AtomicInteger previewGeneration = new AtomicInteger();
+    private final Queue<PreviewBatch> previewResults = new ConcurrentLinkedQueue<>();
+    private @Nullable ScheduledFuture<?> previewTask;
+    private volatile boolean closed;
+    private int shownGeneration = -1;
+    private int shownMessages;
+    private int messageStartIndex;
+    private final Map<ChatHistory.Line, Integer> wrapHeights = new IdentityHashMap<>();
+    private int wrapHeightsWidth = -1;
+
     public TriggerEditorList(Minecraft mc, int width, int height, int y, int entryWidth,
                              int entryHeight, int entrySpacing, Trigger trigger,
                              TextStyle textStyle) {
         super(mc, width, height, y, entryWidth, entryHeight, entrySpacing);
         this.trigger = trigger;
         this.textStyle = textStyle;
-        this.recentChat = ChatNotify.unmodifiedChat.stream().toList().reversed();
+        // The log is read by the preview thread, before the first evaluation
+        int historySize = Config.get().chatHistorySize;
+        this.recentChat = Config.get().chatLogEnabled
+                ? CompletableFuture.supplyAsync(() -> ChatLog.readRecent(historySize),
+                        PREVIEW_EXECUTOR)
+                : CompletableFuture.completedFuture(ChatHistory.getLines());
     }
 
     @Override
@@ -68,6 +113,10 @@ public class TriggerEditorList extends OptionList {
         // Trigger editor
         addSpacedEntry(new Entry.TriggerOptions(
                 dynWideEntryX, dynWideEntryWidth, entryHeight + itemHeight, this, trigger));
+        if (trigger.type == Trigger.Type.FUZZY) {
+            addEntry(new Entry.FuzzyOptions(dynWideEntryX, dynWideEntryWidth, entryHeight,
+                    this, trigger));
+        }
         if (trigger.styleTarget.enabled) {
             addEntry(new Entry.StyleTargetOptions(dynWideEntryX, dynWideEntryWidth, entryHeight,
                     this, trigger.styleTarget));
@@ -92,7 +141,16 @@ public class TriggerEditorList extends OptionList {
         addEntry(new Entry.Controls(dynWideEntryX, dynWideEntryWidth, entryHeight, this));
 
         // Chat message list
-        addChatMessages(this.recentChat);
+        messageStartIndex = children().size();
+        shownGeneration = -1;
+        closed = false;
+        schedulePreview(0);
+    }
+
+    @Override
+    public void removed() {
+        closed = true;
+        if (previewTask != null) previewTask.cancel(false);
     }
 
     // Display field utils
@@ -109,68 +167,153 @@ public class TriggerEditorList extends OptionList {
 
     // Chat message list
 
-    private void addChatMessages(List<Component> recentChat) {
+    /**
+     * Schedules evaluation of the chat message list with the current trigger
+     * and options, after the specified delay. Any pending or running
+     * evaluation is cancelled.
+     *
+     * <p>Messages are evaluated on a background thread, and added to the
+     * list in batches by {@link TriggerEditorList#addPreviewResults}. The
+     * existing message entries are retained until the first batch is added.
+     * </p>
+     */
+    private void schedulePreview(long delayMillis) {
+        int generation = previewGeneration.incrementAndGet();
+        if (previewTask != null) previewTask.cancel(false);
+
+        // Process style target string if required prior to restyle
+        if (restyle && trigger.styleTarget.enabled) {
+            if (trigger.styleTarget.type == StyleTarget.Type.REGEX) {
+                trigger.styleTarget.tryCompilePattern();
+            } else if (trigger.styleTarget.type == StyleTarget.Type.CAPTURING) {
+                trigger.styleTarget.tryParseIndexes();
+            }
+        }
+
+        // Copy options, as they may be edited during evaluation
+        Trigger trig = new Trigger(trigger);
+        TextStyle style = new TextStyle(textStyle);
+        boolean filter = this.filter;
+        boolean restyle = this.restyle;
         boolean restyleAll = Config.get().restyleMode.equals(Config.RestyleMode.ALL_INSTANCES);
+        HolderLookup.Provider registries = ChatHistory.registries();
+
+        previewTask = PREVIEW_EXECUTOR.schedule(
+                () -> evaluatePreview(generation, trig, style, filter, restyle, restyleAll,
+                        registries),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluatePreview(int generation, Trigger trig, TextStyle style,
+                                 boolean filter, boolean restyle, boolean restyleAll,
+                                 HolderLookup.Provider registries) {
+        Pattern pattern = null;
+        try {
+            pattern = switch(trig.type) {
+                case NORMAL -> MessageUtil.normalPattern(trig.string);
+                case REGEX -> Pattern.compile(trig.string);
+                case KEY, WORDS, FUZZY -> null;
+            };
+        } catch (PatternSyntaxException ignored) {}
+        WordList words = trig.type == Trigger.Type.WORDS ? WordList.get(trig.string) : null;
+        FuzzyPattern fuzzy = trig.type == Trigger.Type.FUZZY
+                ? FuzzyPattern.compile(trig.string, trig.maxEdits) : null;
+        trig.fuzzyPattern = fuzzy;
 
         // Filter and restyle, retaining original copies of messages to use
         // when displaying text and key of a clicked message.
-        List<Pair<Component, Component>> displayChat = new ArrayList<>();
-        for (Component msg : recentChat) {
-            Component restyledMsg = msg.copy();
+        List<Pair<ChatHistory.Line, Component>> batch = new ArrayList<>();
+        for (ChatHistory.Line line : recentChat.join()) {
+            // Stop if superseded or closed
+            if (generation != previewGeneration.get() || closed) return;
+
             Matcher matcher = null;
-            String msgStr = FormatUtil.stripCodes(msg.getString());
-            boolean hit = switch(trigger.type) {
-                case NORMAL -> {
-                    matcher = MessageUtil.normalSearch(msgStr, trigger.string);
-                    yield matcher.find();
-                }
-                case REGEX -> {
-                    try {
-                        matcher = Pattern.compile(trigger.string).matcher(msgStr);
-                        yield matcher.find();
-                    } catch (PatternSyntaxException ignored) {
-                        yield false;
-                    }
-                }
-                case KEY -> MessageUtil.keySearch(msg, trigger.string);
-            };
+            String msgStr = line.cleanStr();
+            boolean hit = false;
+            if (trig.type == Trigger.Type.KEY) {
+                hit = MessageUtil.keySearch(line.key(), trig.string);
+            } else if (trig.type == Trigger.Type.WORDS) {
+                matcher = MessageUtil.wordSearch(msgStr, words);
+                hit = matcher != null && matcher.find();
+            } else if (fuzzy != null) {
+                hit = fuzzy.find(msgStr, 0) != null;
+            } else if (pattern != null) {
+                matcher = pattern.matcher(msgStr);
+                hit = matcher.find();
+            }
             if (filter && !hit) continue;
-            else if (restyle && hit) {
-                if (trigger.styleTarget.enabled) {
-                    // Process style target string if required prior to restyle
-                    if (trigger.styleTarget.type == StyleTarget.Type.REGEX) {
-                        trigger.styleTarget.tryCompilePattern();
-                    } else if (trigger.styleTarget.type == StyleTarget.Type.CAPTURING) {
-                        trigger.styleTarget.tryParseIndexes();
-                    }
-                }
-                restyledMsg = StyleUtil.restyle(
-                        msg, msgStr, trigger, matcher, textStyle, restyleAll);
+            Component msg = line.toComponent(registries);
+            if (restyle && hit) {
+                msg = StyleUtil.restyle(msg, msgStr, trig, matcher, style, restyleAll);
+            }
+            batch.add(new Pair<>(line, msg));
+
+            if (batch.size() >= PREVIEW_BATCH_SIZE) {
+                previewResults.add(new PreviewBatch(generation, batch, false));
+                batch = new ArrayList<>();
             }
-            displayChat.add(new Pair<>(msg, restyledMsg));
         }
+        previewResults.add(new PreviewBatch(generation, batch, true));
+    }
 
-        // Add message entries
-        displayChat.forEach((pair) -> {
-            Entry.MessageEntry entry = new Entry.MessageEntry(dynWideEntryX, dynWideEntryWidth,
-                    this, pair.getFirst(), pair.getSecond());
-            addEntry(entry);
-            int requiredHeight =
-                    mc.font.wordWrapHeight(pair.getFirst().getString(), dynWideEntryWidth) - itemHeight;
-            while (requiredHeight > 0) {
-                Entry.Space spaceEntry = new Entry.Space(entry);
-                addEntry(spaceEntry);
-                requiredHeight -= itemHeight;
+    /**
+     * Adds all evaluated batches of the current evaluation to the list.
+     */
+    private void addPreviewResults() {
+        PreviewBatch batch;
+        while ((batch = previewResults.poll()) != null) {
+            if (batch.generation != previewGeneration.get()) continue;
+
+            // Replace the previous message entries
+            if (batch.generation != shownGeneration) {
+                shownGeneration = batch.generation;
+                shownMessages = 0;
+                if (children().size() > messageStartIndex) {
+                    children().subList(messageStartIndex, children().size()).clear();
+                }
             }
-        });
 
-        // If no message entries, add note
-        if (!(children().getLast() instanceof Entry.MessageEntry)) {
-            addEntry(new OptionList.Entry.Text(dynWideEntryX, dynWideEntryWidth, entryHeight,
-                    localized("option", "notif.trigger.editor.recent_messages.none"), null, -1));
+            // Add message entries
+            for (Pair<ChatHistory.Line, Component> pair : batch.results) {
+                Entry.MessageEntry entry = new Entry.MessageEntry(dynWideEntryX, dynWideEntryWidth,
+                        this, pair.getFirst(), pair.getSecond());
+                addEntry(entry);
+                int requiredHeight = getWrapHeight(pair.getFirst()) - itemHeight;
+                while (requiredHeight > 0) {
+                    Entry.Space spaceEntry = new Entry.Space(entry);
+                    addEntry(spaceEntry);
+                    requiredHeight -= itemHeight;
+                }
+            }
+            shownMessages += batch.results.size();
+
+            // If no message entries, add note
+            if (batch.last && shownMessages == 0) {
+                addEntry(new OptionList.Entry.Text(dynWideEntryX, dynWideEntryWidth, entryHeight,
+                        localized("option", "notif.trigger.editor.recent_messages.none"), null, -1));
+            }
         }
     }
 
+    /**
+     * @return the wrapped height of the message at the current entry width,
+     * cached as it does not depend on the trigger.
+     */
+    private int getWrapHeight(ChatHistory.Line line) {
+        if (wrapHeightsWidth != dynWideEntryWidth) {
+            wrapHeights.clear();
+            wrapHeightsWidth = dynWideEntryWidth;
+        }
+        return wrapHeights.computeIfAbsent(line,
+                (l) -> mc.font.wordWrapHeight(l.cleanStr(), dynWideEntryWidth));
+    }
+
+    @Override
+    public void renderWidget(@NotNull GuiGraphics graphics, int mouseX, int mouseY, float delta) {
+        addPreviewResults();
+        super.renderWidget(graphics, mouseX, mouseY, delta);
+    }
+
     // Custom entries
 
     abstract static class Entry extends OptionList.Entry {
@@ -208,10 +351,7 @@ public class TriggerEditorList extends OptionList {
                 triggerField.setValueListener((str) -> {
                     trigger.string = str.strip();
                     if (list.children().size() > 4) {
-                        list.children().removeIf((entry) -> entry instanceof MessageEntry
-                                || entry instanceof Text
-                                || (entry instanceof Space && list.children().indexOf(entry) > 4));
-                        list.addChatMessages(list.recentChat);
+                        list.schedulePreview(PREVIEW_DEBOUNCE_MILLIS);
                     }
                 });
                 triggerField.setValue(trigger.string);
@@ -238,6 +378,29 @@ public class TriggerEditorList extends OptionList {
             }
         }
 
+        private static class FuzzyOptions extends Entry {
+            FuzzyOptions(int x, int width, int height, TriggerEditorList list,
+                         Trigger trigger) {
+                super();
+
+                CycleButton<Integer> editsButton = CycleButton.<Integer>builder(
+                                (edits) -> Component.literal(String.valueOf(edits)))
+                        .withValues(IntStream.rangeClosed(
+                                Trigger.maxEditsMin, Trigger.maxEditsMax).boxed().toList())
+                        .withInitialValue(trigger.maxEdits)
+                        .withTooltip((edits) -> Tooltip.create(localized(
+                                "option", "notif.trigger.max_edits.tooltip")))
+                        .create(x, 0, width, height,
+                                localized("option", "notif.trigger.max_edits"),
+                                (button, edits) -> {
+                                    trigger.maxEdits = edits;
+                                    list.schedulePreview(PREVIEW_DEBOUNCE_MILLIS);
+                                });
+                editsButton.setTooltipDelay(Duration.ofMillis(500));
+                elements.add(editsButton);
+            }
+        }
+
         private static class StyleTargetOptions extends Entry {
             StyleTargetOptions(int x, int width, int height, TriggerEditorList list,
                                StyleTarget styleTarget) {
@@ -279,10 +442,7 @@ public class TriggerEditorList extends OptionList {
                 stringField.setValue(styleTarget.string);
                 stringField.setResponder((string) -> {
                     styleTarget.string = string.strip();
-                    list.children().removeIf((entry) -> entry instanceof MessageEntry
-                            || entry instanceof Text
-                            || (entry instanceof Space && list.children().indexOf(entry) > 4));
-                    list.addChatMessages(list.recentChat);
+                    list.schedulePreview(PREVIEW_DEBOUNCE_MILLIS);
                 });
                 stringField.setHint(localized("option", "notif.trigger.style_target.field.hint"));
                 elements.add(stringField);
@@ -372,13 +532,13 @@ public class TriggerEditorList extends OptionList {
 
         private static class MessageEntry extends Entry {
             private final TriggerEditorList list;
-            private final Component msg;
+            private final ChatHistory.Line line;
 
             MessageEntry(int x, int width, TriggerEditorList list,
-                         Component msg, Component restyledMsg) {
+                         ChatHistory.Line line, Component restyledMsg) {
                 super();
                 this.list = list;
-                this.msg = msg;
+                this.line = line;
                 MultiLineTextWidget widget = new MultiLineTextWidget(x, 0, restyledMsg,
                         Minecraft.getInstance().font);
                 widget.setMaxWidth(width);
@@ -387,9 +547,9 @@ public class TriggerEditorList extends OptionList {
 
             @Override
             public boolean mouseClicked(double mouseX, double mouseY, int button) {
-                list.setTextDisplayValue(FormatUtil.stripCodes(msg.getString()));
-                list.setKeyDisplayValue(msg.getContents() instanceof TranslatableContents tc
-                        ? tc.getKey()
+                list.setTextDisplayValue(line.cleanStr());
+                list.setKeyDisplayValue(line.key() != null
+                        ? line.key()
                         : localized("option", "notif.trigger.editor.display.key.none").getString());
                 list.setScrollAmount(0);
                 return true;
@@ -18,19 +18,27 @@ package dev.terminalmc.chatnotify.mixin;
 
 import com.llamalad7.mixinextras.injector.wrapmethod.WrapMethod;
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import dev.terminalmc.chatnotify.config.Config;
 import dev.terminalmc.chatnotify.util.MessageUtil;
+import dev.terminalmc.chatnotify.util.RestyledComponent;
 import net.minecraft.client.GuiMessageTag;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.components.ChatComponent;
 import net.minecraft.client.gui.screens.ChatScreen;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.client.multiplayer.chat.ChatListener;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.FormattedText;
 import net.minecraft.network.chat.MessageSignature;
+import net.minecraft.util.FormattedCharSequence;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+
+import java.util.List;
 
 /**
  * Minecraft handles different message packet types in different ways. The
@@ -77,7 +85,7 @@ public class MixinChatComponent {
                             || tag.equals(GuiMessageTag.chatError())
             );
             case HUD -> true;
-            case PACKET -> false;
+            case PACKET, PACKET_ASYNC -> false;
         }) {
             return MessageUtil.processMessage(message);
         } else {
@@ -85,6 +93,25 @@ public class MixinChatComponent {
         }
     }
 
+    /**
+     * Wraps messages with deferred restyling without restyling them, and
+     * defers restyling of the wrapped lines until they are first rendered.
+     */
+    @WrapOperation(
+            method = "addMessageToDisplayQueue",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lnet/minecraft/client/gui/components/ComponentRenderUtils;wrapComponents(Lnet/minecraft/network/chat/FormattedText;ILnet/minecraft/client/gui/Font;)Ljava/util/List;"
+            )
+    )
+    private List<FormattedCharSequence> wrapDeferredRestyle(FormattedText text, int maxWidth, Font font,
+                                                            Operation<List<FormattedCharSequence>> original) {
+        if (text instanceof RestyledComponent msg && !msg.isRestyled() && !msg.affectsLayout()) {
+            return msg.wrapDeferred(original.call(msg.getBase(), maxWidth, font), maxWidth, font);
+        }
+        return original.call(text, maxWidth, font);
+    }
+
     @WrapMethod(method = "getHeight()I")
     private int wrapGetHeight(Operation<Integer> original) {
         if (Minecraft.getInstance().screen instanceof ChatScreen cs) {
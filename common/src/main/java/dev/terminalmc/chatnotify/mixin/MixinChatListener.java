@@ -22,6 +22,7 @@ import com.mojang.authlib.GameProfile;
 import dev.terminalmc.chatnotify.compat.chatheads.ChatHeadsWrapper;
 import dev.terminalmc.chatnotify.compat.chatheads.Ownable;
 import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.util.MessageQueue;
 import dev.terminalmc.chatnotify.util.MessageUtil;
 import net.minecraft.client.multiplayer.chat.ChatListener;
 import net.minecraft.network.chat.ChatType;
@@ -38,6 +39,11 @@ import java.time.Instant;
  * <p>ChatHeads' injection points are too late for these capture methods, so
  * if they are being used, {@link ChatHeadsWrapper#handleAddedMessage} must
  * be called manually.</p>
+ *
+ * <p>In {@link Config.DetectionMode#PACKET_ASYNC} mode, the original method is
+ * called by {@link MessageQueue}, later if the message must be processed.
+ * Signed player messages are instead processed immediately, as whether they
+ * are shown determines whether they are acknowledged to the server.</p>
  */
 @Mixin(value = ChatListener.class, priority = 792)
 public class MixinChatListener {
@@ -45,24 +51,40 @@ public class MixinChatListener {
     @WrapMethod(method = "handleDisguisedChatMessage")
     private void wrapHandleDisguisedChatMessage(Component message, ChatType.Bound boundChatType,
                                                 Operation<Void> original) {
-        if (Config.get().detectionMode.equals(Config.DetectionMode.PACKET)) {
-            ChatHeadsWrapper.handleAddedMessage(message, boundChatType, null);
-            message = MessageUtil.processMessage(message);
-            if (message != null) original.call(message, boundChatType);
-        } else {
-            original.call(message, boundChatType);
+        switch (Config.get().detectionMode) {
+            case PACKET -> {
+                ChatHeadsWrapper.handleAddedMessage(message, boundChatType, null);
+                message = MessageUtil.processMessage(message);
+                if (message != null) original.call(message, boundChatType);
+            }
+            case PACKET_ASYNC -> {
+                ChatHeadsWrapper.handleAddedMessage(message, boundChatType, null);
+                MessageQueue.submit(message, (msg) -> {
+                    original.call(msg, boundChatType);
+                    return true;
+                });
+            }
+            default -> original.call(message, boundChatType);
         }
     }
 
     @WrapMethod(method = "handleSystemMessage")
     private void wrapHandleSystemMessage(Component message, boolean isOverlay,
                                          Operation<Void> original) {
-        if (Config.get().detectionMode.equals(Config.DetectionMode.PACKET)) {
-            ChatHeadsWrapper.handleAddedMessage(message, null, null);
-            message = MessageUtil.processMessage(message);
-            if (message != null) original.call(message, isOverlay);
-        } else {
-            original.call(message, isOverlay);
+        switch (Config.get().detectionMode) {
+            case PACKET -> {
+                ChatHeadsWrapper.handleAddedMessage(message, null, null);
+                message = MessageUtil.processMessage(message);
+                if (message != null) original.call(message, isOverlay);
+            }
+            case PACKET_ASYNC -> {
+                ChatHeadsWrapper.handleAddedMessage(message, null, null);
+                MessageQueue.submit(message, (msg) -> {
+                    original.call(msg, isOverlay);
+                    return true;
+                });
+            }
+            default -> original.call(message, isOverlay);
         }
     }
 
@@ -72,15 +94,36 @@ public class MixinChatListener {
                                             PlayerChatMessage playerChatMessage, Component message,
                                             GameProfile gameProfile, boolean onlyShowSecureChat,
                                             Instant timestamp, Operation<Boolean> original) {
-        if (Config.get().detectionMode.equals(Config.DetectionMode.PACKET)) {
-            ChatHeadsWrapper.handleAddedMessage(message, bound, ((Ownable)message).chatheads$getOwner());
-            message = MessageUtil.processMessage(message);
-            if (message != null) return original.call(bound, playerChatMessage, message,
-                    gameProfile, onlyShowSecureChat, timestamp);
-            return false;
-        } else {
-            return original.call(bound, playerChatMessage, message, gameProfile,
-                    onlyShowSecureChat, timestamp);
+        switch (Config.get().detectionMode) {
+            case PACKET -> {
+                ChatHeadsWrapper.handleAddedMessage(message, bound, ((Ownable)message).chatheads$getOwner());
+                message = MessageUtil.processMessage(message);
+                if (message != null) return original.call(bound, playerChatMessage, message,
+                        gameProfile, onlyShowSecureChat, timestamp);
+                return false;
+            }
+            case PACKET_ASYNC -> {
+                ChatHeadsWrapper.handleAddedMessage(message, bound, ((Ownable)message).chatheads$getOwner());
+                if (playerChatMessage.signature() == null) {
+                    // If deferred, the message will be shown once processed,
+                    // unless hidden by a notification, which cannot be known
+                    // yet
+                    return MessageQueue.submit(message, (msg) -> original.call(bound,
+                            playerChatMessage, msg, gameProfile, onlyShowSecureChat, timestamp));
+                }
+                // Signed messages are acknowledged according to whether they
+                // are shown, so are processed immediately, after any queued
+                // messages to retain order
+                MessageQueue.drain();
+                message = MessageUtil.processMessage(message);
+                if (message != null) return original.call(bound, playerChatMessage, message,
+                        gameProfile, onlyShowSecureChat, timestamp);
+                return false;
+            }
+            default -> {
+                return original.call(bound, playerChatMessage, message, gameProfile,
+                        onlyShowSecureChat, timestamp);
+            }
         }
     }
 }
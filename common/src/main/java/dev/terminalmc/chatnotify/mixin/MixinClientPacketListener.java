@@ -18,10 +18,14 @@ package dev.terminalmc.chatnotify.mixin;
 
 import com.mojang.datafixers.util.Pair;
 import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.util.ChatLog;
 import dev.terminalmc.chatnotify.util.FormatUtil;
+import dev.terminalmc.chatnotify.util.SoundPreloader;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.client.multiplayer.PlayerInfo;
+import net.minecraft.client.multiplayer.ServerData;
 import net.minecraft.network.protocol.game.ClientboundLoginPacket;
 import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
 import dev.terminalmc.chatnotify.ChatNotify;
@@ -79,6 +83,32 @@ public class MixinClientPacketListener {
         Config.get().setDisplayName(name);
     }
 
+    /**
+     * Switch chat log to the current server.
+     */
+    @Inject(method = "handleLogin", at = @At("TAIL"))
+    public void openChatLog(ClientboundLoginPacket packet, CallbackInfo ci) {
+        ChatLog.open();
+    }
+
+    /**
+     * Switch notifications to the current server.
+     */
+    @Inject(method = "handleLogin", at = @At("TAIL"))
+    public void switchServer(ClientboundLoginPacket packet, CallbackInfo ci) {
+        ServerData server = Minecraft.getInstance().getCurrentServer();
+        ChatNotify.onServerChanged(server != null
+                ? Notification.normalizeAddress(server.ip) : null);
+    }
+
+    /**
+     * Preload notification sounds.
+     */
+    @Inject(method = "handleLogin", at = @At("TAIL"))
+    public void preloadSounds(ClientboundLoginPacket packet, CallbackInfo ci) {
+        SoundPreloader.preload();
+    }
+
     /**
      * Update displayName.
      *
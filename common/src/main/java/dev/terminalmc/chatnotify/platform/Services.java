@@ -28,7 +28,7 @@ public class Services {
         final T loadedService = ServiceLoader.load(clazz)
                 .findFirst()
                 .orElseThrow(() -> new NullPointerException("Failed to load service for " + clazz.getName()));
-        ChatNotify.LOG.debug("Loaded {} for service {}", loadedService, clazz);
+        ChatNotify.LOG.forClass(Services.class).debug("Loaded {} for service {}", loadedService, clazz);
         return loadedService;
     }
 }
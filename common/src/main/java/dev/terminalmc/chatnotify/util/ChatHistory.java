@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.contents.PlainTextContents;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A fixed-capacity history of recent incoming messages, for use by the
+ * trigger editor.
+ *
+ * <p>Messages are stored in a compact form, see {@link Line}. The capacity
+ * is controlled by {@link Config#chatHistorySize}, and is applied when the
+ * config is saved. When full, the oldest message is overwritten. Messages
+ * are also passed to {@link ChatLog}.</p>
+ *
+ * <p>Messages that cannot be reconstructed from their clean string are
+ * serialized by a background thread, so that receiving a message does no
+ * serialization work on the client thread. Only the serialized form is
+ * retained.</p>
+ *
+ * <p>Must only be accessed from the client thread, except for
+ * {@link Line}, which may be read from any thread.</p>
+ */
+public class ChatHistory {
+    /**
+     * A stored message.
+     */
+    public static final class Line {
+        private final String cleanStr;
+        private final @Nullable String key;
+        private final @Nullable CompletableFuture<String> json;
+
+        /**
+         * @param cleanStr the message string, without format codes.
+         * @param key the translation key of the message, if it is
+         *            translatable.
+         * @param json the serialized message, if the message cannot be
+         *             reconstructed from {@code cleanStr}.
+         */
+        public Line(String cleanStr, @Nullable String key, @Nullable String json) {
+            this(cleanStr, key, json == null ? null : CompletableFuture.completedFuture(json));
+        }
+
+        private Line(String cleanStr, @Nullable String key,
+                     @Nullable CompletableFuture<String> json) {
+            this.cleanStr = cleanStr;
+            this.key = key;
+            this.json = json;
+        }
+
+        /**
+         * @return the message string, without format codes.
+         */
+        public String cleanStr() {
+            return cleanStr;
+        }
+
+        /**
+         * @return the translation key of the message, if it is translatable.
+         */
+        public @Nullable String key() {
+            return key;
+        }
+
+        /**
+         * May be called from any thread, and waits for serialization of the
+         * message if it is not yet complete.
+         * @return the serialized message, or {@code null} if the message can
+         * be reconstructed from {@link Line#cleanStr()}, or could not be
+         * serialized.
+         */
+        public @Nullable String json() {
+            return json == null ? null : json.join();
+        }
+
+        /**
+         * May be called from any thread.
+         * @param registries the registries to deserialize the message with,
+         *                   from {@link ChatHistory#registries()}.
+         * @return the message, deserialized if required.
+         */
+        public Component toComponent(HolderLookup.Provider registries) {
+            String json = json();
+            if (json != null) {
+                try {
+                    Component msg = Component.Serializer.fromJson(json, registries);
+                    if (msg != null) return msg;
+                } catch (Exception e) {
+                    // Catch Exception as the registries may have changed
+                    // since the message was serialized.
+                    ChatNotify.LOG.warn("Unable to deserialize message", e);
+                }
+            }
+            return Component.literal(cleanStr);
+        }
+    }
+
+    private static final ExecutorService SERIALIZER = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " History Serializer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static int capacity = 0;
+    private static Line[] lines = new Line[0];
+    private static int next = 0;
+    private static int size = 0;
+
+    /**
+     * Adds a message to the history, overwriting the oldest message if the
+     * history is full.
+     * @param msg the message.
+     * @param cleanStr the message string, without format codes.
+     */
+    public static void add(Component msg, String cleanStr) {
+        if (capacity == 0) setCapacity(Config.get().chatHistorySize);
+        if (lines.length != capacity) resize(capacity);
+
+        String key = msg.getContents() instanceof TranslatableContents tc ? tc.getKey() : null;
+        Line line;
+        if (isPlain(msg, cleanStr)) {
+            line = new Line(cleanStr, key, (String)null);
+        } else {
+            HolderLookup.Provider registries = registries();
+            line = new Line(cleanStr, key, CompletableFuture.supplyAsync(
+                    () -> serialize(msg, registries), SERIALIZER));
+        }
+        lines[next] = line;
+        next = (next + 1) % lines.length;
+        if (size < lines.length) size++;
+        ChatLog.append(line);
+    }
+
+    /**
+     * Sets the capacity, to be applied when the next message is added.
+     * @param capacity the capacity, clamped to at least 1.
+     */
+    public static void setCapacity(int capacity) {
+        ChatHistory.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * @return all stored messages, most recent first.
+     */
+    public static List<Line> getLines() {
+        List<Line> list = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(lines[Math.floorMod(next - i, lines.length)]);
+        }
+        return list;
+    }
+
+    /**
+     * Changes the capacity, retaining as many of the most recent messages as
+     * possible.
+     */
+    private static void resize(int capacity) {
+        List<Line> retained = getLines();
+        lines = new Line[capacity];
+        size = Math.min(retained.size(), capacity);
+        for (int i = 0; i < size; i++) {
+            lines[size - 1 - i] = retained.get(i);
+        }
+        next = size % capacity;
+    }
+
+    private static @Nullable String serialize(Component msg, HolderLookup.Provider registries) {
+        try {
+            return Component.Serializer.toJson(msg, registries);
+        } catch (Exception e) {
+            // Catch Exception as some components cannot be serialized, in
+            // which case the clean string is retained.
+            ChatNotify.LOG.warn("Unable to serialize message", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the message can be reconstructed as a literal
+     * of {@code cleanStr} without losing anything.
+     */
+    private static boolean isPlain(Component msg, String cleanStr) {
+        return msg.getSiblings().isEmpty()
+                && msg.getStyle().isEmpty()
+                && msg.getContents() instanceof PlainTextContents contents
+                && contents.text().equals(cleanStr);
+    }
+
+    /**
+     * Must be called on the client thread.
+     * @return the registries of the current connection, or empty registries
+     * if not connected.
+     */
+    public static HolderLookup.Provider registries() {
+        Minecraft mc = Minecraft.getInstance();
+        return mc.getConnection() != null ? mc.getConnection().registryAccess() : RegistryAccess.EMPTY;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.platform.Services;
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A persistent, per-server log of incoming messages, allowing the trigger
+ * editor to use messages from previous sessions.
+ *
+ * <p>Each server has two memory-mapped log files of
+ * {@link ChatLog#MAX_FILE_SIZE} bytes, which are written alternately. When
+ * the active file is full, the other file is overwritten from the start. Each
+ * file begins with a header containing a generation number, which identifies
+ * the active file.</p>
+ *
+ * <p>After the header, each record is a length-prefixed sequence of the
+ * record time and the fields of a {@link ChatHistory.Line}. A zero length
+ * marks the end of the records. A record is written before its length, so a
+ * partially-written record is never read.</p>
+ *
+ * <p>Each log file has a sparse index file, containing the offset of every
+ * {@link ChatLog#INDEX_INTERVAL}th record, so that recent records can be read
+ * without scanning the whole file.</p>
+ *
+ * <p>Records are queued by the client thread, and written in batches by a
+ * background thread.</p>
+ */
+public class ChatLog {
+    public static final Path LOG_DIR = Services.PLATFORM.getConfigDir()
+            .resolve(ChatNotify.MOD_ID).resolve("history");
+    public static final int MAX_FILE_SIZE = 8 * 1024 * 1024;
+    public static final int INDEX_INTERVAL = 256;
+    private static final int MAGIC = 0x434E4C47; // CNLG
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long READ_TIMEOUT_MILLIS = 500;
+
+    private static final ScheduledExecutorService EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " History Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EXECUTOR.scheduleWithFixedDelay(ChatLog::flush,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A logged message.
+     * @param time the time the message was received, in epoch milliseconds.
+     * @param line the message.
+     */
+    public record Record(long time, ChatHistory.Line line) {}
+
+    private record Pending(String serverKey, Record record) {}
+
+    private static final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private static volatile @Nullable String serverKey = null;
+
+    // Writer thread only
+    private static @Nullable Writer writer = null;
+
+    /**
+     * Sets the server for subsequent messages to the current server. Must be
+     * called on the client thread.
+     */
+    public static void open() {
+        Minecraft mc = Minecraft.getInstance();
+        String key;
+        if (mc.getSingleplayerServer() != null) {
+            key = "singleplayer_" + mc.getSingleplayerServer().getWorldData().getLevelName();
+        } else if (mc.getCurrentServer() != null) {
+            key = mc.getCurrentServer().ip;
+        } else {
+            key = "unknown";
+        }
+        serverKey = key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+    }
+
+    /**
+     * Queues a message to be logged, if enabled.
+     */
+    public static void append(ChatHistory.Line line) {
+        String key = serverKey;
+        if (key != null && Config.get().chatLogEnabled) {
+            pending.add(new Pending(key, new Record(System.currentTimeMillis(), line)));
+        }
+    }
+
+    /**
+     * Reads the most recent messages logged for the current server, including
+     * any messages not yet written. Waits for pending messages to be written,
+     * so should not be called on the client thread.
+     * @param max the maximum number of messages to read.
+     * @return the messages, most recent first.
+     */
+    public static List<ChatHistory.Line> readRecent(int max) {
+        String key = serverKey;
+        if (key == null) return List.of();
+        try {
+            EXECUTOR.submit(ChatLog::flush).get(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            ChatNotify.LOG.warn("Unable to write pending chat history", e);
+        }
+
+        List<ChatHistory.Line> lines = new ArrayList<>();
+        // Read the active file first
+        List<Path> files = new ArrayList<>(List.of(logFile(key, 0), logFile(key, 1)));
+        files.sort(Comparator.comparingLong(ChatLog::readGeneration).reversed());
+        for (Path file : files) {
+            if (lines.size() >= max) break;
+            for (Record record : readTail(file, indexFile(file), max - lines.size())) {
+                lines.add(record.line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * @return {@code true} if the file is a valid log file.
+     */
+    public static boolean isLogFile(Path file) {
+        return readGeneration(file) != 0;
+    }
+
+    /**
+     * Reads all records of a log file, such as a copy of a log file from
+     * another instance.
+     * @return the records, oldest first.
+     * @throws IOException if the file is not a valid log file.
+     */
+    public static List<Record> readAll(Path file) throws IOException {
+        if (!isLogFile(file)) throw new IOException("Invalid chat history file");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), MAX_FILE_SIZE));
+            List<Record> records = new ArrayList<>();
+            int pos = HEADER_SIZE;
+            int length;
+            while ((length = recordLength(buffer, pos)) > 0) {
+                records.add(decode(buffer, pos + Integer.BYTES));
+                pos += Integer.BYTES + length;
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Writes all pending messages.
+     */
+    private static void flush() {
+        try {
+            Pending next;
+            while ((next = pending.poll()) != null) {
+                if (writer == null || !writer.key.equals(next.serverKey)) {
+                    Writer old = writer;
+                    writer = null;
+                    if (old != null) old.close();
+                    writer = new Writer(next.serverKey);
+                }
+                writer.append(next.record);
+            }
+        } catch (IOException e) {
+            ChatNotify.LOG.warn("Unable to write chat history", e);
+            pending.clear();
+            writer = null;
+        }
+    }
+
+    // Reading
+
+    /**
+     * @return the generation of the log file, or {@code 0} if the file does
+     * not exist or is invalid.
+     */
+    private static long readGeneration(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+                    || header.getInt() != FORMAT_VERSION) return 0;
+            return header.getLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the last records of a log file.
+     * @return up to {@code max} records, most recent first.
+     */
+    private static List<Record> readTail(Path file, Path indexFile, int max) {
+        if (max <= 0 || readGeneration(file) == 0) return List.of();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), MAX_FILE_SIZE));
+            long[] index = readIndex(indexFile, buffer.limit());
+
+            // Count records, scanning only from the last indexed record
+            int pos = index.length == 0 ? HEADER_SIZE : (int)index[index.length - 1];
+            int count = index.length == 0 ? 0 : (index.length - 1) * INDEX_INTERVAL;
+            int length;
+            while ((length = recordLength(buffer, pos)) > 0) {
+                pos += Integer.BYTES + length;
+                count++;
+            }
+
+            // Seek to the first required record, scanning from the start if
+            // the index does not cover it, such as if partially written
+            int first = Math.max(0, count - max);
+            int skip = first;
+            pos = HEADER_SIZE;
+            int slot = first / INDEX_INTERVAL;
+            if (slot < index.length && recordLength(buffer, (int)index[slot]) > 0) {
+                pos = (int)index[slot];
+                skip = first % INDEX_INTERVAL;
+            }
+            List<Record> records = new ArrayList<>(count - first);
+            while ((length = recordLength(buffer, pos)) > 0) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    records.add(decode(buffer, pos + Integer.BYTES));
+                }
+                pos += Integer.BYTES + length;
+            }
+            return records.reversed();
+        } catch (IOException | RuntimeException e) {
+            ChatNotify.LOG.warn("Unable to read chat history file '{}'", file, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * @return the valid offsets in the index file.
+     */
+    private static long[] readIndex(Path indexFile, int limit) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            long[] index = new long[buffer.remaining() / Long.BYTES];
+            for (int i = 0; i < index.length; i++) {
+                long offset = buffer.getLong();
+                if (offset < HEADER_SIZE || offset >= limit) return Arrays.copyOf(index, i);
+                index[i] = offset;
+            }
+            return index;
+        } catch (IOException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * @return the length of the record at the position, or {@code 0} if
+     * there is no valid record.
+     */
+    private static int recordLength(ByteBuffer buffer, int pos) {
+        if (pos > buffer.limit() - Integer.BYTES) return 0;
+        int length = buffer.getInt(pos);
+        return length > 0 && length <= buffer.limit() - pos - Integer.BYTES ? length : 0;
+    }
+
+    private static Record decode(ByteBuffer buffer, int pos) {
+        long time = buffer.getLong(pos);
+        pos += Long.BYTES;
+        String cleanStr = Objects.requireNonNullElse(decodeString(buffer, pos), "");
+        pos += Integer.BYTES + Math.max(0, buffer.getInt(pos));
+        String key = decodeString(buffer, pos);
+        pos += Integer.BYTES + Math.max(0, buffer.getInt(pos));
+        String json = decodeString(buffer, pos);
+        return new Record(time, new ChatHistory.Line(cleanStr, key, json));
+    }
+
+    private static @Nullable String decodeString(ByteBuffer buffer, int pos) {
+        int length = buffer.getInt(pos);
+        if (length < 0) return null;
+        return StandardCharsets.UTF_8.decode(buffer.slice(pos + Integer.BYTES, length)).toString();
+    }
+
+    // Writing
+
+    private static Path logFile(String key, int i) {
+        return LOG_DIR.resolve(key + "." + i + ".log");
+    }
+
+    private static Path indexFile(Path logFile) {
+        String name = logFile.getFileName().toString();
+        return logFile.resolveSibling(name.substring(0, name.length() - 4) + ".idx");
+    }
+
+    /**
+     * Appends records to the active log file of a server.
+     */
+    private static class Writer {
+        private final String key;
+        private int fileIndex;
+        private long generation;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private FileChannel indexChannel;
+        private int pos;
+        private int count;
+
+        Writer(String key) throws IOException {
+            this.key = key;
+            Files.createDirectories(LOG_DIR);
+            long gen0 = readGeneration(logFile(key, 0));
+            long gen1 = readGeneration(logFile(key, 1));
+            if (gen0 == 0 && gen1 == 0) {
+                begin(0, 1);
+            } else {
+                resume(gen0 >= gen1 ? 0 : 1, Math.max(gen0, gen1));
+            }
+        }
+
+        /**
+         * Opens a log file and continues writing after its last record.
+         */
+        private void resume(int fileIndex, long generation) throws IOException {
+            map(fileIndex, generation);
+            // Rebuild the index, in case it is out of date
+            indexChannel.truncate(0);
+            pos = HEADER_SIZE;
+            count = 0;
+            int length;
+            while ((length = recordLength(buffer, pos)) > 0) {
+                if (count % INDEX_INTERVAL == 0) writeIndex(pos);
+                pos += Integer.BYTES + length;
+                count++;
+            }
+            buffer.putInt(pos, 0);
+        }
+
+        /**
+         * Opens a log file and overwrites it from the start.
+         */
+        private void begin(int fileIndex, long generation) throws IOException {
+            map(fileIndex, generation);
+            indexChannel.truncate(0);
+            pos = HEADER_SIZE;
+            count = 0;
+            buffer.putInt(pos, 0);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(8, generation);
+        }
+
+        private void map(int fileIndex, long generation) throws IOException {
+            this.fileIndex = fileIndex;
+            this.generation = generation;
+            Path file = logFile(key, fileIndex);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, MAX_FILE_SIZE);
+            indexChannel = FileChannel.open(indexFile(file), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+        }
+
+        void append(Record record) throws IOException {
+            byte[] cleanStr = record.line.cleanStr().getBytes(StandardCharsets.UTF_8);
+            byte[] key = record.line.key() == null
+                    ? null : record.line.key().getBytes(StandardCharsets.UTF_8);
+            String jsonStr = record.line.json();
+            byte[] json = jsonStr == null ? null : jsonStr.getBytes(StandardCharsets.UTF_8);
+            int length = Long.BYTES + Integer.BYTES * 3 + cleanStr.length
+                    + (key == null ? 0 : key.length) + (json == null ? 0 : json.length);
+
+            // Space is required for the length, record and end marker
+            int required = Integer.BYTES + length + Integer.BYTES;
+            if (required > MAX_FILE_SIZE - HEADER_SIZE) return;
+            if (pos + required > MAX_FILE_SIZE) {
+                close();
+                begin(1 - fileIndex, generation + 1);
+            }
+
+            int start = pos;
+            buffer.putInt(start + Integer.BYTES + length, 0);
+            buffer.position(start + Integer.BYTES);
+            buffer.putLong(record.time);
+            putBytes(cleanStr);
+            putBytes(key);
+            putBytes(json);
+            buffer.putInt(start, length);
+
+            if (count % INDEX_INTERVAL == 0) writeIndex(start);
+            pos += Integer.BYTES + length;
+            count++;
+        }
+
+        private void putBytes(@Nullable byte[] bytes) {
+            if (bytes == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        private void writeIndex(int offset) throws IOException {
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES).putLong(offset).flip();
+            indexChannel.write(entry, (long)(count / INDEX_INTERVAL) * Long.BYTES);
+        }
+
+        void close() throws IOException {
+            // The mapping remains valid until the buffer is collected, so the
+            // file is never renamed or truncated while open.
+            buffer.force();
+            channel.close();
+            indexChannel.close();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import com.mojang.blaze3d.audio.JOrbisAudioStream;
+import com.mojang.blaze3d.audio.SoundBuffer;
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.mixin.accessor.SoundBufferLibraryAccessor;
+import dev.terminalmc.chatnotify.mixin.accessor.SoundEngineAccessor;
+import dev.terminalmc.chatnotify.mixin.accessor.SoundManagerAccessor;
+import dev.terminalmc.chatnotify.platform.Services;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.sounds.SimpleSoundInstance;
+import net.minecraft.client.resources.sounds.Sound;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.client.sounds.WeighedSoundEvents;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.valueproviders.ConstantFloat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supports notification sounds loaded from {@code .ogg} files in
+ * {@link CustomSounds#SOUND_DIR}, rather than from resource packs.
+ *
+ * <p>Each file {@code <name>.ogg} is available as the sound
+ * {@code chatnotify:custom/<name>}. Files are decoded on a background thread
+ * and the decoded data cached, so that playing a custom sound does not read or
+ * decode the file. The directory is watched for changes, and only added,
+ * modified or removed files are reloaded.</p>
+ *
+ * <p>Decoded data is provided to the sound engine's buffer cache when the
+ * sound is played, as the engine clears its cache on resource reload.</p>
+ */
+public class CustomSounds {
+    public static final Path SOUND_DIR = Services.PLATFORM.getConfigDir()
+            .resolve(ChatNotify.MOD_ID).resolve("sounds");
+    public static final String PATH_PREFIX = "custom/";
+    private static final String FILE_EXTENSION = ".ogg";
+    private static final long RELOAD_DELAY_MILLIS = 250;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " Sound Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Decoded(ByteBuffer data, AudioFormat format) {
+        SoundBuffer createBuffer() {
+            // The engine releases its reference to the data after upload, so
+            // each buffer can share the decoded data
+            return new SoundBuffer(data.duplicate(), format);
+        }
+    }
+
+    private record Entry(FileTime modified, long size, CompletableFuture<Decoded> data) {}
+
+    /**
+     * Loaded sounds. Modified only by the loader thread.
+     */
+    private static final Map<ResourceLocation, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates {@link CustomSounds#SOUND_DIR} if required, loads all sounds,
+     * and starts watching for changes.
+     */
+    public static void init() {
+        try {
+            Files.createDirectories(SOUND_DIR);
+        } catch (IOException e) {
+            ChatNotify.LOG.warn("Unable to create custom sound directory", e);
+            return;
+        }
+        reload();
+        startWatcher();
+    }
+
+    /**
+     * @return {@code true} if {@code location} refers to a custom sound,
+     * whether or not that sound exists.
+     */
+    public static boolean isCustom(ResourceLocation location) {
+        return location.getNamespace().equals(ChatNotify.MOD_ID)
+                && location.getPath().startsWith(PATH_PREFIX);
+    }
+
+    /**
+     * @return the locations of all loaded custom sounds.
+     */
+    public static List<ResourceLocation> getLocations() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Creates a {@link SoundInstance} for the specified sound, which may be a
+     * custom sound or a registered sound.
+     */
+    public static SoundInstance createInstance(ResourceLocation location, SoundSource source,
+                                               float volume, float pitch) {
+        if (isCustom(location)) {
+            return new CustomSoundInstance(location, source, volume, pitch);
+        }
+        return new SimpleSoundInstance(location, source, volume, pitch,
+                SoundInstance.createUnseededRandom(), false, 0,
+                SoundInstance.Attenuation.NONE, 0, 0, 0, true);
+    }
+
+    /**
+     * Schedules a check of {@link CustomSounds#SOUND_DIR} for changes.
+     */
+    public static void reload() {
+        EXECUTOR.execute(CustomSounds::scan);
+    }
+
+    private static void scan() {
+        Map<ResourceLocation, Path> files = new HashMap<>();
+        try (DirectoryStream<Path> stream =
+                     Files.newDirectoryStream(SOUND_DIR, "*" + FILE_EXTENSION)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                ResourceLocation location = ResourceLocation.tryBuild(ChatNotify.MOD_ID,
+                        PATH_PREFIX + name.substring(0, name.length() - FILE_EXTENSION.length()));
+                if (location == null) {
+                    ChatNotify.LOG.warn("Ignoring custom sound '{}', name must be lowercase " +
+                            "and contain only a-z, 0-9, '.', '_' or '-'", name);
+                } else {
+                    files.put(location, file);
+                }
+            }
+        } catch (IOException e) {
+            ChatNotify.LOG.warn("Unable to read custom sound directory", e);
+            return;
+        }
+
+        Set<ResourceLocation> changed = new HashSet<>();
+
+        // Removed files
+        for (ResourceLocation location : entries.keySet()) {
+            if (!files.containsKey(location)) {
+                entries.remove(location);
+                changed.add(location);
+            }
+        }
+
+        // Added or modified files
+        Map<ResourceLocation, Path> toDecode = new HashMap<>();
+        for (Map.Entry<ResourceLocation, Path> file : files.entrySet()) {
+            FileTime modified;
+            long size;
+            try {
+                modified = Files.getLastModifiedTime(file.getValue());
+                size = Files.size(file.getValue());
+            } catch (IOException e) {
+                ChatNotify.LOG.warn("Unable to read custom sound '{}'", file.getValue(), e);
+                continue;
+            }
+            Entry entry = entries.get(file.getKey());
+            if (entry != null && entry.modified.equals(modified) && entry.size == size) continue;
+            entries.put(file.getKey(), new Entry(modified, size, new CompletableFuture<>()));
+            toDecode.put(file.getKey(), file.getValue());
+            changed.add(file.getKey());
+        }
+
+        if (!changed.isEmpty()) {
+            ChatNotify.LOG.info("Reloading {} custom sounds", changed.size());
+            evict(changed);
+        }
+
+        for (Map.Entry<ResourceLocation, Path> file : toDecode.entrySet()) {
+            CompletableFuture<Decoded> data = entries.get(file.getKey()).data;
+            try (InputStream in = Files.newInputStream(file.getValue());
+                 JOrbisAudioStream stream = new JOrbisAudioStream(in)) {
+                data.complete(new Decoded(stream.readAll(), stream.getFormat()));
+            } catch (Exception e) {
+                ChatNotify.LOG.warn("Unable to decode custom sound '{}'", file.getValue(), e);
+                data.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Removes stale buffers of the specified sounds from the sound engine's
+     * cache, on the client thread.
+     */
+    private static void evict(Set<ResourceLocation> locations) {
+        Minecraft mc = Minecraft.getInstance();
+        //noinspection ConstantValue
+        if (mc == null) return;
+        mc.execute(() -> {
+            //noinspection ConstantValue
+            if (mc.getSoundManager() == null) return;
+            Map<ResourceLocation, CompletableFuture<SoundBuffer>> cache =
+                    getBufferCache(mc.getSoundManager());
+            for (ResourceLocation location : locations) {
+                CompletableFuture<SoundBuffer> buffer = cache.remove(getFileLocation(location));
+                if (buffer != null) buffer.thenAccept(SoundBuffer::discardAlBuffer);
+            }
+        });
+    }
+
+    private static void startWatcher() {
+        Thread thread = new Thread(() -> {
+            try (WatchService watcher = SOUND_DIR.getFileSystem().newWatchService()) {
+                SOUND_DIR.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                while (true) {
+                    WatchKey key = watcher.take();
+                    // Wait for related events, such as a file being written
+                    // in multiple steps, and reload once
+                    do {
+                        key.pollEvents();
+                        if (!key.reset()) return;
+                    } while ((key = watcher.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                    reload();
+                }
+            } catch (IOException e) {
+                ChatNotify.LOG.warn("Unable to watch custom sound directory", e);
+            } catch (InterruptedException ignored) {}
+        }, ChatNotify.MOD_NAME + " Sound Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Map<ResourceLocation, CompletableFuture<SoundBuffer>> getBufferCache(
+            SoundManager manager) {
+        return ((SoundBufferLibraryAccessor)((SoundEngineAccessor)((SoundManagerAccessor)manager)
+                .getSoundEngine()).getSoundBuffers()).getCache();
+    }
+
+    /**
+     * @return the location used by the sound engine to cache the buffer of
+     * the specified sound.
+     */
+    private static ResourceLocation getFileLocation(ResourceLocation location) {
+        return location.withPath((path) -> "sounds/" + path + FILE_EXTENSION);
+    }
+
+    /**
+     * Resolves to a custom sound, rather than looking up a registered sound
+     * event.
+     */
+    private static class CustomSoundInstance extends SimpleSoundInstance {
+        CustomSoundInstance(ResourceLocation location, SoundSource source,
+                            float volume, float pitch) {
+            super(location, source, volume, pitch, SoundInstance.createUnseededRandom(),
+                    false, 0, SoundInstance.Attenuation.NONE, 0, 0, 0, true);
+        }
+
+        @Override
+        public @Nullable WeighedSoundEvents resolve(@NotNull SoundManager manager) {
+            Entry entry = entries.get(location);
+            if (entry == null) {
+                sound = SoundManager.EMPTY_SOUND;
+                return null;
+            }
+            sound = new Sound(location, ConstantFloat.of(1.0F), ConstantFloat.of(1.0F), 1,
+                    Sound.Type.FILE, false, false, 16);
+            // Provide the buffer before the engine looks it up. If decoding
+            // has not finished, the engine waits without blocking.
+            getBufferCache(manager).computeIfAbsent(sound.getPath(),
+                    (path) -> entry.data.thenApply(Decoded::createBuffer));
+            WeighedSoundEvents events = new WeighedSoundEvents(location, null);
+            events.addSound(sound);
+            return events;
+        }
+    }
+}
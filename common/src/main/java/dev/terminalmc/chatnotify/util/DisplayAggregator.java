@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.gui.toast.NotificationToast;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.toasts.ToastComponent;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Limits the rate at which notification messages are displayed, so that
+ * bursts of activations do not back up the toast queue or constantly
+ * overwrite the HUD.
+ *
+ * <p>Toasts for a {@link Notification} are merged into its existing toast
+ * while that toast is queued or visible. Title and status bar messages are
+ * displayed at most once per interval, with the latest message being displayed
+ * at the end of the interval if it was withheld.</p>
+ *
+ * <p>All methods must be called on the client thread.</p>
+ */
+public class DisplayAggregator {
+    /**
+     * The minimum number of ticks between title updates.
+     */
+    public static final int TITLE_INTERVAL_TICKS = 20;
+
+    /**
+     * The minimum number of ticks between status bar updates.
+     */
+    public static final int STATUS_BAR_INTERVAL_TICKS = 10;
+
+    private static long lastTitleTick = -TITLE_INTERVAL_TICKS;
+    private static @Nullable Component pendingTitle = null;
+
+    private static long lastStatusBarTick = -STATUS_BAR_INTERVAL_TICKS;
+    private static @Nullable Component pendingStatusBar = null;
+
+    /**
+     * Displays a toast message for the {@link Notification}, or merges it into
+     * the notification's existing toast if there is one.
+     */
+    public static void showToast(Notification notif, Component msg) {
+        ToastComponent toasts = Minecraft.getInstance().getToasts();
+        NotificationToast toast = toasts.getToast(NotificationToast.class, notif);
+        if (toast != null) {
+            toast.addActivation(msg);
+        } else {
+            toasts.addToast(new NotificationToast(msg, notif));
+        }
+    }
+
+    /**
+     * Displays a title message, or holds it until the end of the current
+     * interval.
+     */
+    public static void showTitle(Component msg) {
+        if (ChatNotify.ticks - lastTitleTick >= TITLE_INTERVAL_TICKS) {
+            setTitle(msg);
+        } else {
+            pendingTitle = msg;
+        }
+    }
+
+    /**
+     * Displays a status bar message, or holds it until the end of the current
+     * interval.
+     */
+    public static void showStatusBar(Component msg) {
+        if (ChatNotify.ticks - lastStatusBarTick >= STATUS_BAR_INTERVAL_TICKS) {
+            setStatusBar(msg);
+        } else {
+            pendingStatusBar = msg;
+        }
+    }
+
+    /**
+     * Displays any held messages whose interval has elapsed.
+     */
+    public static void tick() {
+        if (pendingTitle != null && ChatNotify.ticks - lastTitleTick >= TITLE_INTERVAL_TICKS) {
+            setTitle(pendingTitle);
+        }
+        if (pendingStatusBar != null
+                && ChatNotify.ticks - lastStatusBarTick >= STATUS_BAR_INTERVAL_TICKS) {
+            setStatusBar(pendingStatusBar);
+        }
+    }
+
+    private static void setTitle(Component msg) {
+        Minecraft.getInstance().gui.setTitle(msg);
+        lastTitleTick = ChatNotify.ticks;
+        pendingTitle = null;
+    }
+
+    private static void setStatusBar(Component msg) {
+        Minecraft.getInstance().gui.setOverlayMessage(msg, false);
+        lastStatusBarTick = ChatNotify.ticks;
+        pendingStatusBar = null;
+    }
+}
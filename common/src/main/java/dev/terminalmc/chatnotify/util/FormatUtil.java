@@ -16,8 +16,6 @@
 
 package dev.terminalmc.chatnotify.util;
 
-import dev.terminalmc.chatnotify.ChatNotify;
-import dev.terminalmc.chatnotify.config.Config;
 import net.minecraft.ChatFormatting;
 import net.minecraft.locale.Language;
 import net.minecraft.network.chat.Component;
@@ -82,15 +80,10 @@ public class FormatUtil {
             throws IllegalArgumentException {
         if (!(text.getContents() instanceof TranslatableContents contents)) return text;
 
-        boolean debug = Config.get().debugMode.equals(Config.DebugMode.ALL);
-
-        if (debug) {
-            ChatNotify.LOG.warn("Converting message to literal");
-            ChatNotify.LOG.warn("Text:");
-            ChatNotify.LOG.warn(text.getString());
-            ChatNotify.LOG.warn("Tree:");
-            ChatNotify.LOG.warn(text.toString());
-        }
+        ProcessingEvents.ConvertTranslatable event = new ProcessingEvents.ConvertTranslatable();
+        event.begin();
+        TraceBuffer.record(TraceBuffer.Stage.CONVERT, contents.getArgs().length, 0,
+                contents.getKey());
 
         // Detach siblings
         List<Component> oldSiblings = new ArrayList<>(text.getSiblings());
@@ -114,11 +107,7 @@ public class FormatUtil {
         } catch (IllegalFormatException e) {
             validFormat = false;
             text = Component.literal(string).withStyle(text.getStyle());
-            if (debug) {
-                ChatNotify.LOG.warn("Invalid string format:");
-                ChatNotify.LOG.warn(e.getMessage());
-                ChatNotify.LOG.warn(string);
-            }
+            TraceBuffer.record(TraceBuffer.Stage.CONVERT_INVALID, e);
         }
 
         if (validFormat) {
@@ -133,12 +122,6 @@ public class FormatUtil {
                 split.add(""); // Pad end only (start is already padded)
             }
 
-            if (debug) {
-                ChatNotify.LOG.warn("Format string:");
-                ChatNotify.LOG.warn(string);
-                ChatNotify.LOG.warn("Size of split array: {}", split.size());
-                ChatNotify.LOG.warn("Size of args array: {}", contents.getArgs().length);
-            }
 
             if (split.size() == 1) {
                 // No placeholders, create component from literal string
@@ -158,30 +141,14 @@ public class FormatUtil {
                 for (int i = 0; i < numPlaceholders; i++) {
                     // Add translated substring
                     if (!split.get(i).isEmpty()) {
-                        if (debug) {
-                            ChatNotify.LOG.warn("Adding translated substring:");
-                            ChatNotify.LOG.warn(split.get(i));
-                        }
                         siblings.add(Component.literal(split.get(i)));
                     }
                     // Add subsequent arg
                     if (args[i] instanceof Component argComponent) {
-                        if (debug) {
-                            ChatNotify.LOG.warn("Adding arg component");
-                            ChatNotify.LOG.warn("Text:");
-                            ChatNotify.LOG.warn(argComponent.getString());
-                            ChatNotify.LOG.warn("Tree:");
-                            ChatNotify.LOG.warn(argComponent.toString());
-                        }
+                        TraceBuffer.record(TraceBuffer.Stage.CONVERT_ARG, i, 0, argComponent);
                         siblings.add(argComponent);
                     } else {
-                        if (debug) {
-                            ChatNotify.LOG.warn("Adding arg object");
-                            ChatNotify.LOG.warn("getClass():");
-                            ChatNotify.LOG.warn(args[i].getClass().getName());
-                            ChatNotify.LOG.warn("toString():");
-                            ChatNotify.LOG.warn(args[i].toString());
-                        }
+                        TraceBuffer.record(TraceBuffer.Stage.CONVERT_ARG, i, 0, args[i]);
                         siblings.add(Component.literal(args[i].toString()));
                     }
                 }
@@ -195,6 +162,13 @@ public class FormatUtil {
         // Re-attach siblings
         text.getSiblings().addAll(oldSiblings);
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = string.length();
+            event.key = key;
+            event.validFormat = validFormat;
+            event.commit();
+        }
         return text;
     }
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An approximate search pattern for
+ * {@link dev.terminalmc.chatnotify.config.Trigger.Type#FUZZY} triggers,
+ * matching any substring of a message within a maximum number of edits
+ * (insertions, deletions or substitutions) of the trigger string.
+ *
+ * <p>Matching is case-insensitive. Messages are searched in a single pass
+ * using Myers' bit-parallel algorithm, with the state of each column of the
+ * edit distance matrix held in a {@code long}. Strings longer than 64 chars
+ * are searched by computing each column directly.</p>
+ *
+ * <p>The maximum number of edits is limited to less than half the length of
+ * the string, so that short strings do not match unrelated text.</p>
+ *
+ * <p>Instances are immutable.</p>
+ */
+public class FuzzyPattern {
+    public static final int MAX_BIT_PARALLEL_LENGTH = Long.SIZE;
+
+    private final char[] chars;
+    private final int maxEdits;
+
+    // Match masks of each char, bit i set if chars[i] is the char
+    private final long[] asciiMasks = new long[128];
+    private final char[] otherChars;
+    private final long[] otherMasks;
+
+    /**
+     * A match.
+     * @param start the index of the first char.
+     * @param end the index after the last char.
+     * @param edits the edit distance of the match.
+     */
+    public record Span(int start, int end, int edits) {}
+
+    private FuzzyPattern(String string, int maxEdits) {
+        chars = fold(string).toCharArray();
+        this.maxEdits = Math.max(0, Math.min(maxEdits, (chars.length - 1) / 2));
+
+        char[] others = new char[chars.length];
+        long[] masks = new long[chars.length];
+        int count = 0;
+        for (int i = 0; i < chars.length && i < MAX_BIT_PARALLEL_LENGTH; i++) {
+            char c = chars[i];
+            if (c < 128) {
+                asciiMasks[c] |= 1L << i;
+            } else {
+                int j = 0;
+                while (j < count && others[j] != c) j++;
+                if (j == count) others[count++] = c;
+                masks[j] |= 1L << i;
+            }
+        }
+        otherChars = Arrays.copyOf(others, count);
+        otherMasks = Arrays.copyOf(masks, count);
+    }
+
+    /**
+     * @param string the string to search for.
+     * @param maxEdits the maximum edit distance of a match.
+     */
+    public static FuzzyPattern compile(String string, int maxEdits) {
+        return new FuzzyPattern(string, maxEdits);
+    }
+
+    /**
+     * @return the maximum edit distance of a match, after limiting by the
+     * length of the string.
+     */
+    public int maxEdits() {
+        return maxEdits;
+    }
+
+    /**
+     * Searches the message for the first match at or after the specified
+     * index. Of overlapping matches, the one with the fewest edits is
+     * returned.
+     * @return the match, or {@code null} if there is none.
+     */
+    public @Nullable Span find(String msg, int from) {
+        if (chars.length == 0) return null;
+        long result = chars.length <= MAX_BIT_PARALLEL_LENGTH
+                ? findEndBitParallel(msg, from)
+                : findEndDynamic(msg, from);
+        if (result < 0) return null;
+        int end = (int)(result >>> 32);
+        int edits = (int)result;
+        return new Span(findStart(msg, from, end), end, edits);
+    }
+
+    /**
+     * Finds the end of the first match by Myers' algorithm, continuing to
+     * the last end within {@link FuzzyPattern#maxEdits} chars with the same
+     * or a lower edit distance.
+     * @return the end index in the high 32 bits and the edit distance in the
+     * low 32 bits, or {@code -1} if there is no match.
+     */
+    private long findEndBitParallel(String msg, int from) {
+        long last = 1L << (chars.length - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = chars.length;
+        int bestEnd = -1;
+        int bestScore = Integer.MAX_VALUE;
+        for (int j = from; j < msg.length(); j++) {
+            long eq = mask(fold(msg.charAt(j)));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            // Shift in 0, so that a match may start at any index
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+
+            if (score <= bestScore && score <= maxEdits) {
+                bestEnd = j + 1;
+                bestScore = score;
+            } else if (bestEnd >= 0 && (score > maxEdits || j + 1 - bestEnd >= maxEdits)) {
+                break;
+            }
+        }
+        return bestEnd < 0 ? -1 : ((long)bestEnd << 32) | bestScore;
+    }
+
+    /**
+     * As {@link FuzzyPattern#findEndBitParallel}, for strings of any length.
+     */
+    private long findEndDynamic(String msg, int from) {
+        int m = chars.length;
+        int[] column = new int[m + 1];
+        for (int i = 0; i <= m; i++) column[i] = i;
+        int bestEnd = -1;
+        int bestScore = Integer.MAX_VALUE;
+        for (int j = from; j < msg.length(); j++) {
+            char c = fold(msg.charAt(j));
+            int diagonal = column[0];
+            for (int i = 1; i <= m; i++) {
+                int above = column[i];
+                column[i] = Math.min(diagonal + (chars[i - 1] == c ? 0 : 1),
+                        Math.min(above, column[i - 1]) + 1);
+                diagonal = above;
+            }
+            int score = column[m];
+
+            if (score <= bestScore && score <= maxEdits) {
+                bestEnd = j + 1;
+                bestScore = score;
+            } else if (bestEnd >= 0 && (score > maxEdits || j + 1 - bestEnd >= maxEdits)) {
+                break;
+            }
+        }
+        return bestEnd < 0 ? -1 : ((long)bestEnd << 32) | bestScore;
+    }
+
+    /**
+     * Finds the start of the match ending at the specified index, by
+     * computing the edit distance of the string to each substring ending
+     * there.
+     * @return the start index with the lowest edit distance, preferring the
+     * length closest to the length of the string.
+     */
+    private int findStart(String msg, int from, int end) {
+        int m = chars.length;
+        int width = end - Math.max(from, end - m - maxEdits);
+        // Distances between the last i chars of the string and the last j
+        // chars of the message before end
+        int[] previous = new int[width + 1];
+        int[] current = new int[width + 1];
+        for (int j = 0; j <= width; j++) previous[j] = j;
+        for (int i = 1; i <= m; i++) {
+            char c = chars[m - i];
+            current[0] = i;
+            for (int j = 1; j <= width; j++) {
+                current[j] = Math.min(previous[j - 1] + (fold(msg.charAt(end - j)) == c ? 0 : 1),
+                        Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = 0;
+        for (int j = 1; j <= width; j++) {
+            if (previous[j] < previous[best] || (previous[j] == previous[best]
+                    && Math.abs(j - m) < Math.abs(best - m))) {
+                best = j;
+            }
+        }
+        return end - best;
+    }
+
+    private long mask(char c) {
+        if (c < 128) return asciiMasks[c];
+        for (int i = 0; i < otherChars.length; i++) {
+            if (otherChars[i] == c) return otherMasks[i];
+        }
+        return 0L;
+    }
+
+    private static String fold(String str) {
+        char[] chars = str.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
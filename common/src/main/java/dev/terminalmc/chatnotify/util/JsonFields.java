@@ -0,0 +1,318 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import dev.terminalmc.chatnotify.ChatNotify;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.terminalmc.chatnotify.util.JsonUtil.LOG_STR;
+
+/**
+ * The fields of a JSON object, read from a {@link JsonReader} for streaming
+ * deserialization.
+ *
+ * <p>Object values, and the object elements of array values, are read by the
+ * {@link TypeAdapter} specified for their key as they are encountered. Array
+ * values without an adapter are read as string lists. Primitive values are
+ * stored as read, and converted when requested.</p>
+ *
+ * <p>A missing or invalid value is replaced by the default value, sets
+ * {@link JsonUtil#hasChanged}, and is logged unless the object version
+ * differs from the current version.</p>
+ */
+public class JsonFields {
+    /**
+     * A value of the wrong JSON type, with a description for logging.
+     */
+    private record Invalid(String description) {}
+
+    /**
+     * A number, parsed when requested.
+     */
+    private record Num(String value) {}
+
+    /**
+     * An object read by an adapter.
+     */
+    private record Obj(Object value) {}
+
+    private final Map<String, Object> values;
+    private final int version;
+    private final boolean silent;
+
+    private JsonFields(Map<String, Object> values, int version, boolean silent) {
+        this.values = values;
+        this.version = version;
+        this.silent = silent;
+    }
+
+    /**
+     * Reads the next JSON object.
+     * @param in the reader.
+     * @param currentVersion the current version of the deserialized class.
+     * @param adapters the adapters for object and object array values, by key.
+     * @return the fields of the object.
+     */
+    public static JsonFields read(JsonReader in, int currentVersion,
+                                  Map<String, TypeAdapter<?>> adapters) throws IOException {
+        Map<String, Object> values = new HashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            values.put(key, readValue(in, adapters.get(key)));
+        }
+        in.endObject();
+
+        if (!(values.get("version") instanceof Num num)) {
+            throw new JsonParseException("Missing version");
+        }
+        int version = parseInt(num.value);
+        return new JsonFields(values, version, version != currentVersion);
+    }
+
+    private static @Nullable Object readValue(JsonReader in, @Nullable TypeAdapter<?> adapter)
+            throws IOException {
+        return switch (in.peek()) {
+            case BEGIN_OBJECT -> {
+                if (adapter == null) {
+                    in.skipValue();
+                    yield new Invalid("{...}");
+                }
+                Object value = adapter.read(in);
+                yield value != null ? new Obj(value) : new Invalid("{...}");
+            }
+            case BEGIN_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    JsonToken token = in.peek();
+                    if (adapter != null && token == JsonToken.BEGIN_OBJECT) {
+                        Object element = adapter.read(in);
+                        if (element != null) list.add(element);
+                    } else if (adapter == null && token == JsonToken.STRING) {
+                        list.add(in.nextString());
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endArray();
+                yield list;
+            }
+            case STRING -> in.nextString();
+            case NUMBER -> new Num(in.nextString());
+            case BOOLEAN -> in.nextBoolean();
+            case NULL -> {
+                in.nextNull();
+                yield new Invalid("null");
+            }
+            default -> throw new JsonParseException("Unexpected token " + in.peek());
+        };
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(value).intValue();
+        }
+    }
+
+    /**
+     * @return the version of the object.
+     */
+    public int version() {
+        return version;
+    }
+
+    private void error(String key, Class<?> cls, String message) {
+        if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(), message);
+        JsonUtil.hasChanged = true;
+    }
+
+    private static String describe(@Nullable Object value) {
+        if (value instanceof Invalid invalid) return invalid.description;
+        if (value instanceof Num num) return num.value;
+        if (value instanceof Obj) return "{...}";
+        if (value instanceof List<?>) return "[...]";
+        return String.valueOf(value);
+    }
+
+    private @Nullable Object getPrimitive(String key, Class<?> cls) {
+        if (!values.containsKey(key)) {
+            error(key, cls, "Key not found");
+            return null;
+        }
+        Object value = values.get(key);
+        if (value instanceof String || value instanceof Num || value instanceof Boolean) {
+            return value;
+        }
+        error(key, cls, "Value '" + describe(value) + "' is not JsonPrimitive");
+        return null;
+    }
+
+    /**
+     * String deserialization helper.
+     */
+    public String getOrDefault(String key, String def) {
+        Class<?> cls = String.class;
+        Object value = getPrimitive(key, cls);
+        if (value == null) return def;
+
+        if (!(value instanceof String str)) {
+            error(key, cls, "Value '" + describe(value) + "' is not String");
+            return def;
+        }
+
+        return str;
+    }
+
+    /**
+     * Integer deserialization helper.
+     */
+    public int getOrDefault(String key, int def) {
+        Class<?> cls = Integer.class;
+        Object value = getPrimitive(key, cls);
+        if (value == null) return def;
+
+        if (!(value instanceof Num num)) {
+            error(key, cls, "Value '" + describe(value) + "' is not Number");
+            return def;
+        }
+
+        return parseInt(num.value);
+    }
+
+    /**
+     * Float deserialization helper.
+     */
+    public float getOrDefault(String key, float def) {
+        Class<?> cls = Float.class;
+        Object value = getPrimitive(key, cls);
+        if (value == null) return def;
+
+        if (!(value instanceof Num num)) {
+            error(key, cls, "Value '" + describe(value) + "' is not Number");
+            return def;
+        }
+
+        return Float.parseFloat(num.value);
+    }
+
+    /**
+     * Boolean deserialization helper.
+     */
+    public boolean getOrDefault(String key, boolean def) {
+        Class<?> cls = Boolean.class;
+        Object value = getPrimitive(key, cls);
+        if (value == null) return def;
+
+        if (!(value instanceof Boolean bool)) {
+            error(key, cls, "Value '" + describe(value) + "' is not Boolean");
+            return def;
+        }
+
+        return bool;
+    }
+
+    /**
+     * Enum deserialization helper.
+     */
+    public <T extends Enum<T>> T getOrDefault(String key, Class<T> cls, T def) {
+        Object value = getPrimitive(key, cls);
+        if (value == null) return def;
+
+        if (!(value instanceof String str)) {
+            error(key, cls, "Value '" + describe(value) + "' is not String");
+            return def;
+        }
+
+        for (T enumVal : cls.getEnumConstants()) {
+            if (enumVal.name().equals(str)) {
+                return enumVal;
+            }
+        }
+
+        error(key, cls, "Value '" + str + "' is not in Enum Constants");
+        return def;
+    }
+
+    /**
+     * String list deserialization helper.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getOrDefault(String key, List<String> def) {
+        return (List<String>)getList(key, String.class, def);
+    }
+
+    /**
+     * Non-primitive object deserialization helper.
+     *
+     * <p><b>Note:</b> requires an adapter for {@code key} to have been
+     * specified when reading.</p>
+     */
+    public <T> T getObjectOrDefault(String key, Class<T> cls, T def) {
+        if (!values.containsKey(key)) {
+            error(key, cls, "Key not found");
+            return def;
+        }
+
+        Object value = values.get(key);
+        if (!(value instanceof Obj obj) || !cls.isInstance(obj.value)) {
+            error(key, cls, "Value '" + describe(value) + "' is not JsonObject");
+            return def;
+        }
+
+        return cls.cast(obj.value);
+    }
+
+    /**
+     * Non-primitive object list deserialization helper.
+     *
+     * <p><b>Note:</b> requires an adapter for {@code key} to have been
+     * specified when reading.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getListOrDefault(String key, Class<T> cls, List<T> def) {
+        return (List<T>)getList(key, cls, def);
+    }
+
+    private List<?> getList(String key, Class<?> cls, List<?> def) {
+        if (!values.containsKey(key)) {
+            error(key, cls, "Key not found");
+            return def;
+        }
+
+        Object value = values.get(key);
+        if (!(value instanceof List<?> list)) {
+            error(key, cls, "Value '" + describe(value) + "' is not JsonArray");
+            return def;
+        }
+
+        return list;
+    }
+}
@@ -16,14 +16,15 @@
 
 package dev.terminalmc.chatnotify.util;
 
-import com.google.gson.*;
-import dev.terminalmc.chatnotify.ChatNotify;
-import org.jetbrains.annotations.Nullable;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.io.IOException;
 
 public class JsonUtil {
     public static final String LOG_STR = "Unable to deserialize key '{}' with type '{}': {}. " +
@@ -34,212 +35,47 @@ public class JsonUtil {
         hasChanged = false;
     }
 
-    public static @Nullable JsonPrimitive getAsJsonPrimitiveOrNull(
-            JsonObject obj, String key, Class<?> cls, boolean silent) {
-        if (!obj.has(key)) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(), "Key not found");
-            hasChanged = true;
-            return null;
-        }
-
-        JsonElement element = obj.get(key);
-        if (!element.isJsonPrimitive()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not JsonPrimitive");
-            hasChanged = true;
-            return null;
-        }
-
-        return element.getAsJsonPrimitive();
-    }
-
-    public static @Nullable JsonObject getAsJsonObjectOrNull(
-            JsonObject obj, String key, Class<?> cls, boolean silent) {
-        if (!obj.has(key)) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(), "Key not found");
-            hasChanged = true;
-            return null;
-        }
-
-        JsonElement element = obj.get(key);
-        if (!element.isJsonObject()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not JsonObject");
-            hasChanged = true;
-            return null;
-        }
-
-        return element.getAsJsonObject();
-    }
-
-    public static @Nullable JsonArray getAsJsonArrayOrNull(
-            JsonObject obj, String key, Class<?> cls, boolean silent) {
-        if (!obj.has(key)) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(), "Key not found");
-            hasChanged = true;
-            return null;
-        }
-
-        JsonElement element = obj.get(key);
-        if (!element.isJsonArray()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not JsonArray");
-            hasChanged = true;
-            return null;
-        }
-
-        return element.getAsJsonArray();
-    }
-
     /**
-     * String deserialization helper.
+     * Reads an instance from the next JSON object of a {@link JsonReader}.
      */
-    public static String getOrDefault(JsonObject obj, String key, String def, boolean silent) {
-        Class<?> cls = String.class;
-        JsonElement element = getAsJsonPrimitiveOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        if (!element.getAsJsonPrimitive().isString()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not String");
-            hasChanged = true;
-            return def;
-        }
-
-        return element.getAsString();
-    }
-
-    /**
-     * Integer deserialization helper.
-     */
-    public static int getOrDefault(JsonObject obj, String key, int def, boolean silent) {
-        Class<?> cls = Integer.class;
-        JsonElement element = getAsJsonPrimitiveOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        if (!element.getAsJsonPrimitive().isNumber()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not Number");
-            hasChanged = true;
-            return def;
-        }
-
-        return element.getAsInt();
+    @FunctionalInterface
+    public interface StreamDeserializer<T> {
+        /**
+         * @param gson the {@link Gson} to get adapters for nested values from.
+         * @param in the reader, positioned at the start of the object.
+         */
+        T deserialize(Gson gson, JsonReader in) throws IOException;
     }
 
     /**
-     * Float deserialization helper.
+     * Creates a {@link TypeAdapterFactory} for adapters which deserialize
+     * instances of {@code cls} by streaming, using {@code deserializer}, and
+     * serialize them using the default reflective adapter.
      */
-    public static float getOrDefault(JsonObject obj, String key, float def, boolean silent) {
-        Class<?> cls = Integer.class;
-        JsonElement element = getAsJsonPrimitiveOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        if (!element.getAsJsonPrimitive().isNumber()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not Number");
-            hasChanged = true;
-            return def;
-        }
-
-        return element.getAsFloat();
-    }
-
-    /**
-     * Boolean deserialization helper.
-     */
-    public static boolean getOrDefault(JsonObject obj, String key, boolean def, boolean silent) {
-        Class<?> cls = Boolean.class;
-        JsonElement element = getAsJsonPrimitiveOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        if (!element.getAsJsonPrimitive().isBoolean()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not Boolean");
-            hasChanged = true;
-            return def;
-        }
-
-        return element.getAsBoolean();
-    }
-
-    /**
-     * Enum deserialization helper.
-     */
-    public static <T extends Enum<T>> T getOrDefault(
-            JsonObject obj, String key, Class<T> cls, T def, boolean silent) {
-        JsonElement element = getAsJsonPrimitiveOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        if (!element.getAsJsonPrimitive().isString()) {
-            if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                    "Value '" + element + "' is not String");
-            hasChanged = true;
-            return def;
-        }
-
-        String value = element.getAsString();
-        for (T enumVal : cls.getEnumConstants()) {
-            if (enumVal.name().equals(value)) {
-                return enumVal;
+    public static <T> TypeAdapterFactory streamingFactory(
+            Class<T> cls, StreamDeserializer<T> deserializer) {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <U> TypeAdapter<U> create(Gson gson, TypeToken<U> type) {
+                if (type.getRawType() != cls) return null;
+                TypeAdapter<U> delegate = gson.getDelegateAdapter(this, type);
+                return new TypeAdapter<>() {
+                    @Override
+                    public void write(JsonWriter out, U value) throws IOException {
+                        delegate.write(out, value);
+                    }
+
+                    @Override
+                    public U read(JsonReader in) throws IOException {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                            return null;
+                        }
+                        return (U)deserializer.deserialize(gson, in);
+                    }
+                };
             }
-        }
-
-        if (!silent) ChatNotify.LOG.error(LOG_STR, key, cls.getName(),
-                "Value '" + value + "' is not in Enum Constants");
-        hasChanged = true;
-        return def;
-    }
-
-    /**
-     * Non-primitive object deserialization helper.
-     *
-     * <p><b>Note:</b> requires the deserializer for {@code cls} to be 
-     * registered to the deserializing {@link Gson}.</p>
-     */
-    public static <T> T getOrDefault(JsonDeserializationContext ctx, JsonObject obj,
-                                     String key, Class<T> cls, T def, boolean silent) {
-        JsonElement element = getAsJsonObjectOrNull(obj, key, cls, silent);
-        if (element == null) return def;
-
-        return ctx.deserialize(element, cls);
-    }
-
-    /**
-     * String list deserialization helper.
-     */
-    public static List<String> getOrDefault(
-            JsonObject obj, String key, List<String> def, boolean silent) {
-        JsonArray array = getAsJsonArrayOrNull(obj, key, String.class, silent);
-        if (array == null) return def;
-
-        return array
-                .asList()
-                .stream()
-                .filter((je) -> (je.isJsonPrimitive() && je.getAsJsonPrimitive().isString()))
-                .map(JsonElement::getAsString)
-                .collect(Collectors.toCollection(ArrayList::new));
-    }
-    /**
-     * Non-primitive object list deserialization helper.
-     *
-     * <p><b>Note:</b> requires the deserializer for {@code cls} to be 
-     * registered to the deserializing {@link Gson}.</p>
-     */
-    @SuppressWarnings("unchecked")
-    public static <T> List<T> getOrDefault(JsonDeserializationContext ctx, JsonObject obj,
-                                           String key, Class<T> cls, List<T> def, boolean silent) {
-        JsonArray array = getAsJsonArrayOrNull(obj, key, cls, silent);
-        if (array == null) return def;
-
-        return array
-                .asList()
-                .stream()
-                .filter(JsonElement::isJsonObject)
-                .map((je) -> (T)ctx.deserialize(je, cls))
-                .toList()
-                .stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toCollection(ArrayList::new));
+        };
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Supports {@link Config.DetectionMode#PACKET_ASYNC} by evaluating messages on
+ * a worker thread, while holding them in an ordered queue.
+ *
+ * <p>Owner checking is completed on the client thread when a message is
+ * submitted, as it depends on state which is only valid at that point. The
+ * remainder of {@link MessageUtil#evaluate} is completed by the worker.</p>
+ *
+ * <p>Messages are displayed and notification side effects completed on the
+ * client thread, in arrival order. If a message has not been evaluated within
+ * {@link MessageQueue#MAX_DELAY_NANOS}, it is displayed unmodified and any
+ * side effects not dependent on the message display are completed when
+ * evaluation finishes. The first such timeout is logged as a warning, and
+ * later ones at debug level.</p>
+ */
+public class MessageQueue {
+    private static final ModLogger LOG = ChatNotify.LOG.forClass(MessageQueue.class);
+
+    /**
+     * The maximum time that a message can be held before it is displayed
+     * unmodified.
+     */
+    public static final long MAX_DELAY_NANOS = 100_000_000L;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, ChatNotify.MOD_NAME + " Message Processor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Messages awaiting display, in arrival order. Only accessed from the
+     * client thread.
+     */
+    private static final Queue<Pending> queue = new ArrayDeque<>();
+
+    /**
+     * Whether a timed-out message has been logged as a warning. Only
+     * accessed from the client thread.
+     */
+    private static boolean timeoutLogged = false;
+
+    private record Pending(Component msg, Predicate<Component> display, long deadline,
+                           @Nullable CompletableFuture<MessageUtil.Result> result) {}
+
+    /**
+     * Submits a message for evaluation. Must be called on the client thread.
+     *
+     * <p>If the message does not require evaluation and no earlier messages
+     * are waiting, it is displayed immediately.</p>
+     * @param msg the original message.
+     * @param display the operation to display the processed message, to be
+     *                called on the client thread.
+     * @return the result of {@code display} if the message was displayed
+     * immediately, otherwise {@code true}.
+     */
+    public static boolean submit(Component msg, Predicate<Component> display) {
+        long start = System.nanoTime();
+        MessageUtil.CheckedMessage checked = MessageUtil.checkMessage(msg);
+        long checkTime = System.nanoTime() - start;
+        CompletableFuture<MessageUtil.Result> result = null;
+        if (checked != null) {
+            result = CompletableFuture.supplyAsync(() -> {
+                long evalStart = System.nanoTime();
+                MessageUtil.Result r = MessageUtil.evaluate(checked);
+                ProcessingBudget.record(checkTime + System.nanoTime() - evalStart);
+                return r;
+            }, EXECUTOR);
+            // Hand off to the client thread as soon as evaluation finishes
+            result.whenComplete((r, e) -> Minecraft.getInstance().execute(MessageQueue::flush));
+        } else {
+            flush();
+            if (queue.isEmpty()) return display.test(msg);
+        }
+        queue.add(new Pending(msg, display, System.nanoTime() + MAX_DELAY_NANOS, result));
+        flush();
+        return true;
+    }
+
+    /**
+     * Displays all messages at the head of the queue which have either been
+     * evaluated or exceeded the maximum delay. Must be called on the client
+     * thread.
+     */
+    public static void flush() {
+        long time = System.nanoTime();
+        while (!queue.isEmpty()) {
+            Pending pending = queue.peek();
+            if (pending.result == null) {
+                // Blank message, display as-is
+                queue.poll();
+                pending.display.test(pending.msg);
+            } else if (pending.result.isDone()) {
+                queue.poll();
+                MessageUtil.Result result = getResult(pending);
+                if (result == null) {
+                    pending.display.test(pending.msg);
+                } else {
+                    result.applyEffects(false);
+                    if (result.msg() != null) pending.display.test(result.msg());
+                }
+            } else if (time - pending.deadline >= 0) {
+                // Timed out, display unmodified and complete late effects
+                queue.poll();
+                pending.display.test(pending.msg);
+                pending.result.whenCompleteAsync(MessageQueue::applyLate,
+                        Minecraft.getInstance());
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Displays all queued messages, waiting for each to be evaluated until
+     * its deadline. Must be called on the client thread, before a message is
+     * displayed without being queued.
+     */
+    public static void drain() {
+        for (Pending pending : queue) {
+            long remaining = pending.deadline - System.nanoTime();
+            if (pending.result == null || remaining <= 0) continue;
+            try {
+                pending.result.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // Handled by flush
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Completes the side effects of a timed-out message, logging any effects
+     * skipped or any error in processing.
+     */
+    private static void applyLate(@Nullable MessageUtil.Result result, @Nullable Throwable e) {
+        if (e != null) {
+            LOG.error("Unable to process message", e);
+            TraceBuffer.recordError(e);
+            return;
+        }
+        //noinspection DataFlowIssue
+        int skipped = result.applyEffects(true);
+        if (!timeoutLogged) {
+            timeoutLogged = true;
+            LOG.warn("Message not processed within {} ms, displayed unmodified "
+                    + "and skipped {} display effects", MAX_DELAY_NANOS / 1_000_000, skipped);
+        } else {
+            LOG.debug("Message timed out, skipped {} display effects", skipped);
+        }
+    }
+
+    private static @Nullable MessageUtil.Result getResult(Pending pending) {
+        try {
+            //noinspection DataFlowIssue
+            return pending.result.join();
+        } catch (Exception e) {
+            // Catch Exception as errors in processing should not prevent the
+            // message from being displayed.
+            LOG.error("Unable to process message", e);
+            TraceBuffer.recordError(e);
+            return null;
+        }
+    }
+}
@@ -20,11 +20,8 @@ import com.mojang.datafixers.util.Pair;
 import dev.terminalmc.chatnotify.ChatNotify;
 import dev.terminalmc.chatnotify.compat.chatheads.ChatHeadsWrapper;
 import dev.terminalmc.chatnotify.config.*;
-import dev.terminalmc.chatnotify.gui.toast.NotificationToast;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.PlayerInfo;
-import net.minecraft.client.resources.sounds.SimpleSoundInstance;
-import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.network.chat.*;
 import net.minecraft.network.chat.contents.TranslatableContents;
 import net.minecraft.resources.ResourceLocation;
@@ -38,57 +35,145 @@ import static dev.terminalmc.chatnotify.ChatNotify.recentMessages;
 import static dev.terminalmc.chatnotify.config.Config.SenderDetectionMode.COMBINED;
 
 public class MessageUtil {
-    private static boolean debug = false;
-    private static boolean ownMsg = false;
 
     /**
-     * Initiates the message processing algorithm.
+     * The client tick at which each notification sound was last played, for
+     * coalescing by {@link Config#soundWindowTicks}. Only accessed from the
+     * client thread.
+     */
+    private static final Map<ResourceLocation, Long> soundTicks = new HashMap<>();
+
+    /**
+     * A message which has been checked for blankness and ownership, ready for
+     * notification processing.
+     * @param msg the original message.
+     * @param cleanStr the message string, with all format codes removed.
+     * @param cleanOwnedStr cleanStr, with the sender removed if applicable.
+     * @param ownMsg whether the message was identified as sent by the user.
+     * @param traceId the {@link TraceBuffer} id of the message.
+     */
+    public record CheckedMessage(Component msg, String cleanStr, String cleanOwnedStr,
+                                 boolean ownMsg, int traceId) {}
+
+    /**
+     * The result of processing a message.
+     * @param msg the message to display, or {@code null} if the message
+     *            should be hidden.
+     * @param effects the side effects of all activated notifications, in
+     *                activation order.
+     */
+    public record Result(@Nullable Component msg, List<Effect> effects) {
+        /**
+         * Completes all side effects. Must be called on the client thread.
+         * @param late if {@code true}, effects which depend on the displayed
+         *             message (status bar and title) will be skipped, as the
+         *             unmodified message has already been displayed.
+         * @return the number of effects skipped.
+         */
+        public int applyEffects(boolean late) {
+            int skipped = 0;
+            for (Effect effect : effects) {
+                if (!late || !effect.visual()) {
+                    effect.action().run();
+                } else {
+                    skipped++;
+                }
+            }
+            return skipped;
+        }
+    }
+
+    /**
+     * A deferred notification side effect.
+     * @param visual whether the effect displays the processed message, and is
+     *               therefore only valid if that message is displayed.
+     * @param action the effect.
+     */
+    public record Effect(boolean visual, Runnable action) {}
+
+    /**
+     * Initiates the message processing algorithm, and completes the side
+     * effects of any activated notifications.
      * @param msg The original message.
      * @return A modified copy of the message, or the original if no modifying
      * was required.
      */
     public static @Nullable Component processMessage(Component msg) {
-        debug = Config.get().debugMode.equals(Config.DebugMode.ALL);
-        ownMsg = false;
+        long start = System.nanoTime();
+        CheckedMessage checked = checkMessage(msg);
+        if (checked == null) return msg;
+        Result result = evaluate(checked);
+        result.applyEffects(false);
+        ProcessingBudget.record(System.nanoTime() - start);
+        return result.msg();
+    }
 
+    /**
+     * Saves the message for the trigger editor and checks the owner.
+     *
+     * <p>Must be called on the client thread, in message arrival order, as the
+     * owner check depends on the state of the sent message list and ChatHeads.
+     * </p>
+     * @param msg the original message.
+     * @return the checked message, or {@code null} if the message is blank and
+     * should not be processed.
+     */
+    public static @Nullable CheckedMessage checkMessage(Component msg) {
         String str = msg.getString();
-        if (str.isBlank()) return msg; // Ignore blank messages
+        if (str.isBlank()) return null; // Ignore blank messages
 
-        // Save message for trigger editor
-        if (ChatNotify.unmodifiedChat.size() > 30) ChatNotify.unmodifiedChat.poll();
-        ChatNotify.unmodifiedChat.add(msg);
-
-        if (debug) {
-            ChatNotify.LOG.warn("Processing new message");
-            ChatNotify.LOG.warn("Original text:");
-            ChatNotify.LOG.warn(msg.getString());
-            ChatNotify.LOG.warn("Original tree:");
-            ChatNotify.LOG.warn(msg.toString());
-        }
+        int traceId = TraceBuffer.beginMessage();
+        TraceBuffer.record(TraceBuffer.Stage.MESSAGE, str.length(), 0, msg);
 
         // Remove format codes from string before searching
         String cleanStr = FormatUtil.stripCodes(str);
 
+        // Save message for trigger editor
+        ChatHistory.add(msg, cleanStr);
+
         // Check owner
         String cleanOwnedStr = checkOwner(cleanStr);
-        ownMsg = !cleanOwnedStr.equals(cleanStr);
+
+        return new CheckedMessage(msg, cleanStr, cleanOwnedStr, !cleanOwnedStr.equals(cleanStr),
+                traceId);
+    }
+
+    /**
+     * Checks the message against all notifications, and restyles it if
+     * required.
+     *
+     * <p>Evaluates the snapshots of {@link Config#getActiveNotifs}, and does
+     * not complete any side effects, including cooldown updates, so may be
+     * called off the client thread. Side effects are instead returned for the
+     * caller to complete via {@link Result#applyEffects}.</p>
+     * @param checked the checked message.
+     * @return the processing result.
+     */
+    public static Result evaluate(CheckedMessage checked) {
+        List<Effect> effects = new ArrayList<>();
+        ProcessingBudget.Level level = ProcessingBudget.level();
+        TraceBuffer.setMessage(checked.traceId());
+        if (level != ProcessingBudget.Level.NONE) {
+            TraceBuffer.record(TraceBuffer.Stage.BUDGET, level.ordinal(), 0, level);
+        }
 
         // Process notifications
-        msg = tryNotify(msg.copy(), cleanStr, cleanOwnedStr);
-
-        if (debug) {
-            ChatNotify.LOG.warn("Finished processing message");
-            if (msg == null) {
-                ChatNotify.LOG.warn("null");
-            } else {
-                ChatNotify.LOG.warn("Final text:");
-                ChatNotify.LOG.warn(msg.getString());
-                ChatNotify.LOG.warn("Final tree:");
-                ChatNotify.LOG.warn(msg.toString());
-            }
+        ProcessingEvents.ProcessMessage event = new ProcessingEvents.ProcessMessage();
+        event.begin();
+        Component original = checked.msg().copy();
+        Component msg = tryNotify(original, checked.cleanStr(),
+                checked.cleanOwnedStr(), checked.ownMsg(), level, effects);
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = checked.cleanStr().length();
+            event.activated = msg != original || !effects.isEmpty();
+            event.hidden = msg == null;
+            event.commit();
         }
 
-        return msg;
+        TraceBuffer.record(TraceBuffer.Stage.RESULT, msg == null ? 1 : 0, 0, msg);
+
+        return new Result(msg, effects);
     }
 
     /**
@@ -112,6 +197,8 @@ public class MessageUtil {
      * result of the check.
      */
     private static String checkOwner(String cleanStr) {
+        ProcessingEvents.CheckOwner event = new ProcessingEvents.CheckOwner();
+        event.begin();
         boolean checkSuccessful = false;
         String cleanOwnedStr = cleanStr;
         if (Config.get().senderDetectionMode == COMBINED) {
@@ -119,15 +206,15 @@ public class MessageUtil {
             Pair<PlayerInfo,Integer> info = ChatHeadsWrapper.getPlayerInfo();
             if (info != null) { // null indicates ChatHeads failure
                 checkSuccessful = true;
-                if (debug) ChatNotify.LOG.warn("Owner check using ChatHeads");
+                TraceBuffer.record(TraceBuffer.Stage.OWNER_CHECK, 0, 0, null);
                 if (info.getFirst() != null && Minecraft.getInstance().player != null) {
                     UUID id = info.getFirst().getProfile().getId();
                     if (id.equals(Minecraft.getInstance().player.getUUID())) {
-                        if (debug) ChatNotify.LOG.warn("Matched user's UUID");
                         for (Trigger t : Config.get().getUserNotif().triggers) {
-                            Matcher matcher = normalSearch(cleanStr, t.string);
+                            Matcher matcher = normalSearch(cleanStr, t);
                             if (matcher.find()) {
-                                if (debug) ChatNotify.LOG.warn("Matched trigger '{}'", t.string);
+                                TraceBuffer.record(TraceBuffer.Stage.OWNER_MATCH,
+                                        matcher.start(), matcher.end(), t.string);
                                 // Modify message according to config
                                 cleanOwnedStr = cleanStr.substring(0, matcher.start())
                                         + cleanStr.substring(matcher.end());
@@ -140,7 +227,7 @@ public class MessageUtil {
         }
         // Default to sent-message-match heuristic
         if (!checkSuccessful) {
-            if (debug) ChatNotify.LOG.warn("Owner check using heuristic");
+            TraceBuffer.record(TraceBuffer.Stage.OWNER_CHECK, 1, 0, null);
             // Check for a matching stored message
             for (int i = 0; i < recentMessages.size(); i++) {
                 // Find last occurrence of recent message
@@ -152,15 +239,16 @@ public class MessageUtil {
                     recentStart = recentMatcher.start();
                 }
                 if (recentStart != -1) {
-                    if (debug) ChatNotify.LOG.warn("Matched recent message '{}' at index {}",
-                            recentMessages.get(i).getSecond(), recentStart);
+                    String recentStr = recentMessages.get(i).getSecond();
+                    TraceBuffer.record(TraceBuffer.Stage.OWNER_MATCH, recentStart,
+                            recentStart + recentStr.length(), recentStr);
                     // Matched against a stored message, check for a username trigger
                     String prefix = cleanStr.substring(0, recentStart);
                     for (Trigger t : Config.get().getUserNotif().triggers) {
-                        Matcher triggerMatcher = normalSearch(prefix, t.string);
+                        Matcher triggerMatcher = normalSearch(prefix, t);
                         if (triggerMatcher.find()) {
-                            if (debug) ChatNotify.LOG.warn("Matched trigger '{}' at index {}",
-                                    t.string, triggerMatcher.start());
+                            TraceBuffer.record(TraceBuffer.Stage.OWNER_MATCH,
+                                    triggerMatcher.start(), triggerMatcher.end(), t.string);
                             recentMessages.remove(i); // Remove stored message
                             // Modify message according to config
                             cleanOwnedStr =
@@ -174,7 +262,14 @@ public class MessageUtil {
                 }
             }
         }
-        if (debug) ChatNotify.LOG.warn("Owner-checked string: '{}'", cleanOwnedStr);
+        TraceBuffer.record(TraceBuffer.Stage.OWNER_RESULT, cleanOwnedStr.length(), 0,
+                cleanOwnedStr);
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = cleanStr.length();
+            event.ownMsg = !cleanOwnedStr.equals(cleanStr);
+            event.commit();
+        }
         return cleanOwnedStr;
     }
 
@@ -193,94 +288,74 @@ public class MessageUtil {
      * @param msg the message.
      * @param cleanStr the message string, with all format codes removed.
      * @param cleanOwnedStr cleanStr, with the sender removed if applicable.
-     * @return a re-styled copy of the message, or the original message if
-     * restyling was not possible.
+     * @param ownMsg whether the message was identified as sent by the user.
+     * @param level the {@link ProcessingBudget.Level} controlling which
+     *              stages to skip.
+     * @param effects the list to add the side effects of activated
+     *                notifications to.
+     * @return the message with any restyling deferred, a replacement message,
+     * or {@code null} if the message was replaced with a blank message.
      */
     private static @Nullable Component tryNotify(Component msg, String cleanStr,
-                                                 String cleanOwnedStr) {
+                                                 String cleanOwnedStr, boolean ownMsg,
+                                                 ProcessingBudget.Level level,
+                                                 List<Effect> effects) {
         boolean restyleAll = Config.get().restyleMode.equals(Config.RestyleMode.ALL_INSTANCES);
+        boolean doRestyle = level.ordinal() < ProcessingBudget.Level.NO_RESTYLE.ordinal();
+        boolean doToast = level.ordinal() < ProcessingBudget.Level.NO_TOAST.ordinal();
+        boolean priorityOnly = level == ProcessingBudget.Level.PRIORITY_ONLY;
         boolean anyActivated = false;
         boolean anySoundPlayed = false;
+        // Restyling is deferred until the message is displayed
+        List<StyleUtil.Span> spans = new ArrayList<>();
 
         // Check each notification, in order
-        for (Notification notif : Config.get().getNotifs()) {
-            if (!notif.canActivate(ownMsg)) continue;
+        List<Notification> notifs = Config.get().getActiveNotifs();
+        for (Notification notif : notifs) {
+            if (priorityOnly && notif != notifs.getFirst()) break;
+            if (!notif.canActivate(ownMsg) || notif.isCoolingDown(ChatNotify.ticks)) continue;
 
             // Trigger search
-            for (Trigger trig : notif.triggers) {
-                if (trig.string.isBlank()) continue;
-                Matcher matcher = null;
-                boolean hit = switch(trig.type) {
-                    case NORMAL -> {
-                        if (normalSearch(cleanOwnedStr, trig.string).find()) {
-                            matcher = normalSearch(cleanStr, trig.string);
-                            yield matcher.find();
-                        }
-                        yield false;
-                    }
-                    case REGEX -> {
-                        if (trig.pattern == null) yield false;
-                        matcher = trig.pattern.matcher(cleanStr);
-                        yield matcher.find();
-                    }
-                    case KEY -> keySearch(msg, trig.string);
-                };
-                if (!hit) continue;
-
-                // Inclusion search
-                boolean inMiss = false;
-                if (notif.inclusionEnabled) {
-                    for (Trigger inTrig : notif.inclusionTriggers) {
-                        if (trig.string.isBlank()) continue;
-                        inMiss = (!switch(inTrig.type) {
-                            case NORMAL -> normalSearch(cleanOwnedStr, inTrig.string).find();
-                            case REGEX -> inTrig.pattern == null || inTrig.pattern.matcher(cleanStr).find();
-                            case KEY -> keySearch(msg, inTrig.string);
-                        });
-                        if (inMiss) break;
-                    }
-                }
-                if (inMiss) continue;
-
-                // Exclusion search
-                boolean exHit = false;
-                if (notif.exclusionEnabled) {
-                    for (Trigger exTrig : notif.exclusionTriggers) {
-                        if (trig.string.isBlank()) continue;
-                        exHit = switch(exTrig.type) {
-                            case NORMAL -> normalSearch(cleanOwnedStr, exTrig.string).find();
-                            case REGEX -> exTrig.pattern != null && exTrig.pattern.matcher(cleanStr).find();
-                            case KEY -> keySearch(msg, exTrig.string);
-                        };
-                        if (exHit) break;
-                    }
-                }
-                if (exHit) continue;
+            Match match = findMatch(notif, cleanStr, cleanOwnedStr, getKey(msg));
+            if (match != null) {
+                Trigger trig = match.trig();
+                Matcher matcher = match.matcher();
 
                 // Activate notification
+                if (TraceBuffer.isEnabled()) {
+                    TraceBuffer.record(TraceBuffer.Stage.ACTIVATE, notifIndex(notif),
+                            matcher != null ? matcher.start() : -1, trig.string);
+                }
                 anyActivated = true;
+                long tick = ChatNotify.ticks;
+                effects.add(new Effect(false, () -> notif.setActivated(tick)));
 
                 // Play sound
                 if (!anySoundPlayed || Config.get().notifMode.equals(Config.NotifMode.ALL)) {
-                    anySoundPlayed = playSound(notif);
+                    anySoundPlayed = playSound(notif, effects);
                 }
 
                 // Send response messages
                 Matcher subsMatcher = trig.type == Trigger.Type.REGEX ? matcher : null;
-                sendResponses(notif, subsMatcher);
+                sendResponses(notif, cleanStr, subsMatcher, effects);
 
                 // Restyle
-                msg = StyleUtil.restyle(msg, cleanStr, trig, matcher, notif.textStyle, restyleAll);
+                if (doRestyle) {
+                    spans.addAll(StyleUtil.findSpans(cleanStr, trig, matcher,
+                            notif.textStyle, restyleAll));
+                }
 
                 // Send custom messages, after restyle in case of forwarding
                 // the entire message. Reset match by subsMatcher.find(0)
-                showStatusBarMsg(notif, msg, subsMatcher);
-                showTitleMsg(notif, msg, subsMatcher);
-                showToastMsg(notif, msg, subsMatcher);
+                Component restyledMsg = deferRestyle(msg, spans);
+                showStatusBarMsg(notif, restyledMsg, subsMatcher, effects);
+                showTitleMsg(notif, restyledMsg, subsMatcher, effects);
+                if (doToast) showToastMsg(notif, restyledMsg, subsMatcher, effects);
 
                 // If replacement enabled, process
                 if (notif.replacementMsgEnabled) {
                     msg = convertMsg(notif.replacementMsg, subsMatcher);
+                    spans.clear();
                     String str = msg.getString();
                     cleanStr = FormatUtil.stripCodes(str);
                     cleanOwnedStr = cleanStr;
@@ -288,13 +363,157 @@ public class MessageUtil {
                     // No other notifications can activate on a blank message
                     if (str.isBlank()) return null;
                 }
-
-                break;
             }
             // If only activating single, return early
-            if (anyActivated && Config.get().notifMode.equals(Config.NotifMode.SINGLE)) return msg;
+            if (anyActivated && Config.get().notifMode.equals(Config.NotifMode.SINGLE)) {
+                return deferRestyle(msg, spans);
+            }
+        }
+        return deferRestyle(msg, spans);
+    }
+
+    /**
+     * A trigger match.
+     * @param trig the matched {@link Trigger}.
+     * @param matcher the matcher positioned at the match, or {@code null} if
+     *                the trigger is a {@link Trigger.Type#KEY} or
+     *                {@link Trigger.Type#FUZZY} trigger.
+     */
+    public record Match(Trigger trig, @Nullable Matcher matcher) {}
+
+    /**
+     * Searches the message for the triggers of a {@link Notification}, in
+     * order.
+     * @param notif the {@link Notification}.
+     * @param cleanStr the message string, with format codes removed.
+     * @param cleanOwnedStr {@code cleanStr} with the sender's name removed.
+     * @param msgKey the translation key of the message, or {@code null} if
+     *               the message is not translatable.
+     * @return the first match which satisfies the inclusion and exclusion
+     * triggers, or {@code null} if there is none.
+     */
+    public static @Nullable Match findMatch(Notification notif, String cleanStr,
+                                            String cleanOwnedStr, @Nullable String msgKey) {
+        for (Trigger trig : notif.triggers) {
+            Match match = tryMatch(notif, trig, cleanStr, cleanOwnedStr, msgKey);
+            if (match != null) return match;
+        }
+        return null;
+    }
+
+    /**
+     * Searches the message for a single trigger of a {@link Notification}.
+     * @see MessageUtil#findMatch
+     * @return the match, or {@code null} if the trigger does not match or
+     * the inclusion and exclusion triggers are not satisfied.
+     */
+    public static @Nullable Match tryMatch(Notification notif, Trigger trig, String cleanStr,
+                                           String cleanOwnedStr, @Nullable String msgKey) {
+        if (trig.string.isBlank()) return null;
+        ProcessingEvents.TriggerMatch event = new ProcessingEvents.TriggerMatch();
+        event.begin();
+        long start = System.nanoTime();
+        Matcher matcher = null;
+        boolean hit = switch(trig.type) {
+            case NORMAL -> {
+                if (normalSearch(cleanOwnedStr, trig).find()) {
+                    matcher = normalSearch(cleanStr, trig);
+                    yield matcher.find();
+                }
+                yield false;
+            }
+            case REGEX -> {
+                if (trig.pattern == null) yield false;
+                matcher = trig.pattern.matcher(cleanStr);
+                yield matcher.find();
+            }
+            case KEY -> keySearch(msgKey, trig.string);
+            case WORDS -> {
+                if (trig.wordList != null && trig.wordList.contains(cleanOwnedStr)) {
+                    matcher = wordSearch(cleanStr, trig.wordList);
+                    yield matcher != null && matcher.find();
+                }
+                yield false;
+            }
+            case FUZZY -> trig.fuzzyPattern != null
+                    && trig.fuzzyPattern.find(cleanOwnedStr, 0) != null;
+        };
+        if (!hit) {
+            recordMatch(trig, TriggerMetrics.Outcome.MISS, start, event, cleanStr);
+            return null;
+        }
+
+        // Inclusion search
+        if (notif.inclusionEnabled) {
+            for (Trigger inTrig : notif.inclusionTriggers) {
+                boolean inHit = switch(inTrig.type) {
+                    case NORMAL -> normalSearch(cleanOwnedStr, inTrig).find();
+                    case REGEX -> inTrig.pattern == null || inTrig.pattern.matcher(cleanStr).find();
+                    case KEY -> keySearch(msgKey, inTrig.string);
+                    case WORDS -> inTrig.wordList == null
+                            || inTrig.wordList.contains(cleanOwnedStr);
+                    case FUZZY -> inTrig.fuzzyPattern == null
+                            || inTrig.fuzzyPattern.find(cleanOwnedStr, 0) != null;
+                };
+                if (!inHit) {
+                    recordMatch(trig, TriggerMetrics.Outcome.INCLUSION_REJECT, start, event,
+                            cleanStr);
+                    return null;
+                }
+            }
+        }
+
+        // Exclusion search
+        if (notif.exclusionEnabled) {
+            for (Trigger exTrig : notif.exclusionTriggers) {
+                boolean exHit = switch(exTrig.type) {
+                    case NORMAL -> normalSearch(cleanOwnedStr, exTrig).find();
+                    case REGEX -> exTrig.pattern != null && exTrig.pattern.matcher(cleanStr).find();
+                    case KEY -> keySearch(msgKey, exTrig.string);
+                    case WORDS -> exTrig.wordList != null
+                            && exTrig.wordList.contains(cleanOwnedStr);
+                    case FUZZY -> exTrig.fuzzyPattern != null
+                            && exTrig.fuzzyPattern.find(cleanOwnedStr, 0) != null;
+                };
+                if (exHit) {
+                    recordMatch(trig, TriggerMetrics.Outcome.EXCLUSION_REJECT, start, event,
+                            cleanStr);
+                    return null;
+                }
+            }
         }
-        return msg;
+
+        recordMatch(trig, TriggerMetrics.Outcome.HIT, start, event, cleanStr);
+        return new Match(trig, matcher);
+    }
+
+    private static void recordMatch(Trigger trig, TriggerMetrics.Outcome outcome, long start,
+                                    ProcessingEvents.TriggerMatch event, String cleanStr) {
+        TriggerMetrics.record(trig, outcome, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = cleanStr.length();
+            event.notifIndex = TriggerMetrics.notifIndex(trig);
+            event.type = trig.type.name();
+            event.outcome = outcome.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the index of the {@link Notification} in the config, using its
+     * source if it is a snapshot.
+     */
+    private static int notifIndex(Notification notif) {
+        return Config.get().getNotifs().indexOf(notif.source != null ? notif.source : notif);
+    }
+
+    /**
+     * @return the message, with restyling of the specified parts deferred
+     * until the restyled message is required.
+     */
+    private static Component deferRestyle(Component msg, List<StyleUtil.Span> spans) {
+        return spans.isEmpty() ? msg : new RestyledComponent(msg, List.copyOf(spans));
     }
 
     /**
@@ -305,10 +524,30 @@ public class MessageUtil {
      * otherwise.
      */
     public static boolean keySearch(Component msg, String key) {
+        return keySearch(getKey(msg), key);
+    }
+
+    /**
+     * @return the translation key of the message, or {@code null} if the
+     * message is not translatable.
+     */
+    public static @Nullable String getKey(Component msg) {
+        return msg.getContents() instanceof TranslatableContents tc ? tc.getKey() : null;
+    }
+
+    /**
+     * Checks whether the key matches the message key;
+     * @param msgKey the translation key of the message, or {@code null} if
+     *               the message is not translatable.
+     * @param key the key (or partial key) to search for.
+     * @return {@code true} if the key matches the message key, {@code false}
+     * otherwise.
+     */
+    public static boolean keySearch(@Nullable String msgKey, String key) {
         if (key.equals(".")) {
             return true;
-        } else if (msg.getContents() instanceof TranslatableContents tc) {
-            return tc.getKey().contains(key);
+        } else if (msgKey != null) {
+            return msgKey.contains(key);
         }
         return false;
     }
@@ -331,23 +570,83 @@ public class MessageUtil {
         position is beginning or end of string. Thus, it cannot be used here as
         it will fail to match for a trigger starting or ending in \W.
          */
-        return Pattern.compile("(?iU)(?<!\\w)(\\W?)" + Pattern.quote(str) + "(\\W?)(?!\\w)")
-                .matcher(msg);
+        return normalPattern(str).matcher(msg);
+    }
+
+    /**
+     * Performs a {@link MessageUtil#normalSearch} for the string of the
+     * {@link Trigger}, using its compiled pattern if current.
+     * @param msg the message to search.
+     * @param trig the {@link Trigger} to search for.
+     * @return the {@link Matcher} for the search.
+     */
+    public static Matcher normalSearch(String msg, Trigger trig) {
+        Pattern pattern = trig.pattern;
+        if (pattern == null || !trig.isPatternCurrent()) return normalSearch(msg, trig.string);
+        return pattern.matcher(msg);
+    }
+
+    /**
+     * Performs a {@link MessageUtil#normalSearch} for all words of the
+     * {@link WordList} found in the message.
+     * @param msg the message to search.
+     * @param words the {@link WordList}, or {@code null} if none.
+     * @return a {@link Matcher} with the groups of
+     * {@link MessageUtil#normalSearch}, for any of the words found, or
+     * {@code null} if no words are found.
+     */
+    public static @Nullable Matcher wordSearch(String msg, @Nullable WordList words) {
+        if (words == null) return null;
+        List<String> found = words.findAll(msg);
+        if (found.isEmpty()) return null;
+        // Longest first, so the longest word at a position is matched
+        StringJoiner regex = new StringJoiner("|", "(?iU)(?<!\\w)(\\W?)(?:", ")(\\W?)(?!\\w)");
+        for (String word : found) {
+            regex.add(Pattern.quote(word));
+        }
+        return Pattern.compile(regex.toString()).matcher(msg);
+    }
+
+    /**
+     * @param str the string to search for.
+     * @return the {@link Pattern} used by {@link MessageUtil#normalSearch}.
+     */
+    public static Pattern normalPattern(String str) {
+        return Pattern.compile(normalRegex(str));
+    }
+
+    /**
+     * @param str the string to search for.
+     * @return the source of {@link MessageUtil#normalPattern}.
+     */
+    public static String normalRegex(String str) {
+        return "(?iU)(?<!\\w)(\\W?)" + Pattern.quote(str) + "(\\W?)(?!\\w)";
     }
 
     /**
-     * Plays the sound of the specified {@link Notification}, if enabled.
+     * Plays the sound of the specified {@link Notification}, if enabled and
+     * not played within the last {@link Config#soundWindowTicks} ticks.
      * @param notif the {@link Notification}.
+     * @param effects the list to add the sound effect to.
+     * @return {@code true} if a sound will be played.
      */
-    private static boolean playSound(Notification notif) {
+    private static boolean playSound(Notification notif, List<Effect> effects) {
         if (notif.sound.isEnabled() && notif.sound.getVolume() > 0) {
             ResourceLocation location = notif.sound.getResourceLocation();
             if (location != null) {
-                Minecraft.getInstance().getSoundManager().play(new SimpleSoundInstance(
-                        notif.sound.getResourceLocation(), Config.get().soundSource,
-                        notif.sound.getVolume(), notif.sound.getPitch(),
-                        SoundInstance.createUnseededRandom(), false, 0,
-                        SoundInstance.Attenuation.NONE, 0, 0, 0, true));
+                effects.add(new Effect(false, () -> {
+                    // Coalesce repeat plays of the same sound
+                    long tick = ChatNotify.ticks;
+                    Long lastTick = soundTicks.get(location);
+                    if (lastTick != null && tick - lastTick < Config.get().soundWindowTicks) {
+                        TraceBuffer.record(TraceBuffer.Stage.SOUND_SKIP, location);
+                        return;
+                    }
+                    soundTicks.put(location, tick);
+                    Minecraft.getInstance().getSoundManager().play(CustomSounds.createInstance(
+                            location, Config.get().soundSource,
+                            notif.sound.getVolume(), notif.sound.getPitch()));
+                }));
                 return true;
             }
         }
@@ -379,13 +678,15 @@ public class MessageUtil {
      * @param msg the original message.
      * @param matcher the {@link Matcher} for the trigger, if a regex trigger
      *                was used, {@code null} otherwise.
+     * @param effects the list to add the display effect to.
      */
-    private static void showStatusBarMsg(Notification notif, Component msg, Matcher matcher) {
+    private static void showStatusBarMsg(Notification notif, Component msg, Matcher matcher,
+                                         List<Effect> effects) {
         if (notif.statusBarMsgEnabled) {
             Component displayMsg = notif.statusBarMsg.isBlank()
                     ? msg
                     : convertMsg(notif.statusBarMsg, matcher);
-            Minecraft.getInstance().gui.setOverlayMessage(displayMsg, false);
+            effects.add(new Effect(true, () -> DisplayAggregator.showStatusBar(displayMsg)));
         }
     }
 
@@ -395,13 +696,15 @@ public class MessageUtil {
      * @param msg the original message.
      * @param matcher the {@link Matcher} for the trigger, if a regex trigger
      *                was used, {@code null} otherwise.
+     * @param effects the list to add the display effect to.
      */
-    private static void showTitleMsg(Notification notif, Component msg, Matcher matcher) {
+    private static void showTitleMsg(Notification notif, Component msg, Matcher matcher,
+                                     List<Effect> effects) {
         if (notif.titleMsgEnabled) {
             Component displayMsg = notif.titleMsg.isBlank()
                     ? msg
                     : convertMsg(notif.titleMsg, matcher);
-            Minecraft.getInstance().gui.setTitle(displayMsg);
+            effects.add(new Effect(true, () -> DisplayAggregator.showTitle(displayMsg)));
         }
     }
 
@@ -411,13 +714,15 @@ public class MessageUtil {
      * @param msg the original message.
      * @param matcher the {@link Matcher} for the trigger, if a regex trigger
      *                was used, {@code null} otherwise.
+     * @param effects the list to add the display effect to.
      */
-    private static void showToastMsg(Notification notif, Component msg, Matcher matcher) {
+    private static void showToastMsg(Notification notif, Component msg, Matcher matcher,
+                                     List<Effect> effects) {
         if (notif.toastMsgEnabled) {
             Component displayMsg = notif.toastMsg.isBlank()
                     ? msg
                     : convertMsg(notif.toastMsg, matcher);
-            Minecraft.getInstance().getToasts().addToast(new NotificationToast(displayMsg));
+            effects.add(new Effect(false, () -> DisplayAggregator.showToast(notif, displayMsg)));
         }
     }
 
@@ -425,24 +730,47 @@ public class MessageUtil {
      * Sends all response messages of the specified notification, if the
      * relevant control is enabled.
      * @param notif the Notification.
+     * @param cleanStr the message string, with all format codes removed.
+     * @param matcher the trigger matcher, for capturing group substitution.
+     * @param effects the list to add the response effect to.
      */
-    private static void sendResponses(Notification notif, @Nullable Matcher matcher) {
+    private static void sendResponses(Notification notif, String cleanStr,
+                                      @Nullable Matcher matcher, List<Effect> effects) {
         if (notif.responseEnabled) {
-            int totalDelay = 0;
+            ProcessingEvents.SendResponse event = new ProcessingEvents.SendResponse();
+            event.begin();
+            // Process strings now, as the matcher may be reused before the
+            // effect is completed
+            List<String> sendingStrings = new ArrayList<>();
             for (ResponseMessage msg : notif.responseMessages) {
-                msg.sendingString = msg.string;
+                String sendingString = msg.string;
                 if (msg.type.equals(ResponseMessage.Type.REGEX)
                         && matcher != null && matcher.find(0)) {
                     // Capturing group substitution
                     for (int i = 0; i <= matcher.groupCount(); i++) {
                         String replacement = matcher.group(i) == null ? "" : matcher.group(i);
-                        msg.sendingString = msg.sendingString.replaceAll("\\(" + i + "\\)", replacement);
+                        sendingString = sendingString.replaceAll("\\(" + i + "\\)", replacement);
                     }
                 }
-                totalDelay += msg.delayTicks;
-                msg.countdown = totalDelay;
-                ChatNotify.responseMessages.add(msg);
+                sendingStrings.add(sendingString);
             }
+            event.end();
+            if (event.shouldCommit()) {
+                event.length = cleanStr.length();
+                event.notifIndex = notifIndex(notif);
+                event.responses = sendingStrings.size();
+                event.commit();
+            }
+            effects.add(new Effect(false, () -> {
+                int totalDelay = 0;
+                for (int i = 0; i < notif.responseMessages.size() && i < sendingStrings.size(); i++) {
+                    ResponseMessage msg = notif.responseMessages.get(i);
+                    msg.sendingString = sendingStrings.get(i);
+                    totalDelay += msg.delayTicks;
+                    msg.countdown = totalDelay;
+                    ChatNotify.responseMessages.add(msg);
+                }
+            }));
         }
     }
 }
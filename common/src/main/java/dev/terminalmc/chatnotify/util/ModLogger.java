@@ -19,52 +19,185 @@ package dev.terminalmc.chatnotify.util;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.logging.log4j.util.StackLocatorUtil;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 
+/**
+ * Wraps a {@link Logger}, prefixing messages with the logger name, and for
+ * {@link Level#DEBUG} also the simple name of the class given to
+ * {@link ModLogger#forClass}.
+ *
+ * <p>The level is checked before a message is created, and fixed-arity
+ * overloads avoid creating a varargs array, so calls at disabled levels cost
+ * only the check. Formatting of enabled messages is deferred to the appender
+ * by {@link PrefixedMessage}. Prefixes are built once, when the logger is
+ * created.</p>
+ */
 @SuppressWarnings("unused")
 public class ModLogger {
     private final Logger logger;
+    private final String prefix;
+    private final String debugPrefix;
 
-    public ModLogger(Logger logger) {
+    private ModLogger(Logger logger, String debugPrefix) {
         this.logger = logger;
+        this.prefix = "[" + logger.getName() + "]: ";
+        this.debugPrefix = debugPrefix;
+    }
+
+    public ModLogger(Logger logger) {
+        this(logger, "[" + logger.getName() + "]: ");
     }
 
     public ModLogger(String name) {
         this(LogManager.getLogger(name));
     }
 
-    private String edit(Level level, String message) {
-        if (level == Level.DEBUG) return String.format("[%s/%s]: %s", logger.getName(),
-                StackLocatorUtil.getCallerClass(4).getSimpleName(), message);
-        return String.format("[%s]: %s", logger.getName(), message);
+    /**
+     * @return a logger wrapping the same {@link Logger}, which prefixes
+     * {@link Level#DEBUG} messages with the simple name of the class.
+     */
+    public ModLogger forClass(Class<?> type) {
+        return new ModLogger(logger, "[" + logger.getName() + "/" + type.getSimpleName() + "]: ");
+    }
+
+    private String prefix(Level level) {
+        return level == Level.DEBUG ? debugPrefix : prefix;
     }
 
     private void log(Level level, String message, Object... args) {
-        if (!logger.isEnabled(level)) return;
-        logger.log(level, edit(level, message), args);
+        logger.log(level, new PrefixedMessage(prefix(level), message, args));
+    }
+
+    public void trace(String message) {
+        if (logger.isTraceEnabled()) log(Level.TRACE, message);
+    }
+
+    public void trace(String message, Object arg) {
+        if (logger.isTraceEnabled()) log(Level.TRACE, message, arg);
+    }
+
+    public void trace(String message, Object arg1, Object arg2) {
+        if (logger.isTraceEnabled()) log(Level.TRACE, message, arg1, arg2);
+    }
+
+    public void trace(String message, Object... args) {
+        if (logger.isTraceEnabled()) log(Level.TRACE, message, args);
+    }
+
+    public void debug(String message) {
+        if (logger.isDebugEnabled()) log(Level.DEBUG, message);
+    }
+
+    public void debug(String message, Object arg) {
+        if (logger.isDebugEnabled()) log(Level.DEBUG, message, arg);
+    }
+
+    public void debug(String message, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled()) log(Level.DEBUG, message, arg1, arg2);
+    }
+
+    public void debug(String message, Object... args) {
+        if (logger.isDebugEnabled()) log(Level.DEBUG, message, args);
+    }
+
+    public void info(String message) {
+        if (logger.isInfoEnabled()) log(Level.INFO, message);
     }
 
-    public void trace(String message, Object... args){
-        log(Level.TRACE, message, args);
+    public void info(String message, Object arg) {
+        if (logger.isInfoEnabled()) log(Level.INFO, message, arg);
     }
 
-    public void debug(String message, Object... args){
-        log(Level.DEBUG, message, args);
+    public void info(String message, Object arg1, Object arg2) {
+        if (logger.isInfoEnabled()) log(Level.INFO, message, arg1, arg2);
     }
 
-    public void info(String message, Object... args){
-        log(Level.INFO, message, args);
+    public void info(String message, Object... args) {
+        if (logger.isInfoEnabled()) log(Level.INFO, message, args);
     }
 
-    public void warn(String message, Object... args){
-        log(Level.WARN, message, args);
+    public void warn(String message) {
+        if (logger.isWarnEnabled()) log(Level.WARN, message);
     }
 
-    public void error(String message, Object... args){
-        log(Level.ERROR, message, args);
+    public void warn(String message, Object arg) {
+        if (logger.isWarnEnabled()) log(Level.WARN, message, arg);
     }
 
-    public void fatal(String message, Object... args){
-        log(Level.FATAL, message, args);
+    public void warn(String message, Object arg1, Object arg2) {
+        if (logger.isWarnEnabled()) log(Level.WARN, message, arg1, arg2);
+    }
+
+    public void warn(String message, Object... args) {
+        if (logger.isWarnEnabled()) log(Level.WARN, message, args);
+    }
+
+    public void error(String message) {
+        if (logger.isErrorEnabled()) log(Level.ERROR, message);
+    }
+
+    public void error(String message, Object arg) {
+        if (logger.isErrorEnabled()) log(Level.ERROR, message, arg);
+    }
+
+    public void error(String message, Object arg1, Object arg2) {
+        if (logger.isErrorEnabled()) log(Level.ERROR, message, arg1, arg2);
+    }
+
+    public void error(String message, Object... args) {
+        if (logger.isErrorEnabled()) log(Level.ERROR, message, args);
+    }
+
+    public void fatal(String message) {
+        if (logger.isFatalEnabled()) log(Level.FATAL, message);
+    }
+
+    public void fatal(String message, Object arg) {
+        if (logger.isFatalEnabled()) log(Level.FATAL, message, arg);
+    }
+
+    public void fatal(String message, Object arg1, Object arg2) {
+        if (logger.isFatalEnabled()) log(Level.FATAL, message, arg1, arg2);
+    }
+
+    public void fatal(String message, Object... args) {
+        if (logger.isFatalEnabled()) log(Level.FATAL, message, args);
+    }
+
+    /**
+     * A {@link ParameterizedMessage} with a prefix, formatted only when first
+     * requested by the appender.
+     */
+    private static class PrefixedMessage implements Message {
+        private final String prefix;
+        private final ParameterizedMessage message;
+        private transient String formatted;
+
+        PrefixedMessage(String prefix, String format, Object[] args) {
+            this.prefix = prefix;
+            this.message = new ParameterizedMessage(format, args);
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            if (formatted == null) formatted = prefix + message.getFormattedMessage();
+            return formatted;
+        }
+
+        @Override
+        public String getFormat() {
+            return prefix + message.getFormat();
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return message.getParameters();
+        }
+
+        @Override
+        public Throwable getThrowable() {
+            return message.getThrowable();
+        }
     }
 }
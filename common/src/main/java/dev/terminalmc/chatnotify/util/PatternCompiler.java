@@ -0,0 +1,211 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.config.StyleTarget;
+import dev.terminalmc.chatnotify.config.Trigger;
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles and caches the regex {@link Pattern}s of {@link Trigger}s and
+ * {@link StyleTarget}s.
+ *
+ * <p>Compiled patterns are cached by pattern string and flags, so that
+ * patterns which have not changed are not recompiled. The cache is replaced
+ * on each call to {@link PatternCompiler#compile(Config)}, retaining only the
+ * patterns used by the active notifications of the config. Patterns of
+ * notifications for other servers are compiled when switching to those
+ * servers.</p>
+ *
+ * <p>The {@link WordList}s of
+ * {@link Trigger.Type#WORDS} triggers are loaded with the other trigger
+ * patterns, and cached separately.</p>
+ *
+ * <p>When a config has many new patterns, as on launch with a large config,
+ * they are compiled in the background and applied on the client thread when
+ * done. Until then, {@link Trigger.Type#NORMAL} triggers are searched by
+ * compiling their pattern for each search, and other patterns keep their
+ * previous value.</p>
+ */
+public class PatternCompiler {
+    private static final ModLogger LOG = ChatNotify.LOG.forClass(PatternCompiler.class);
+
+    /**
+     * The minimum number of new patterns for compilation to be done in the
+     * background, split across the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     */
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    private record Key(String string, int flags) {}
+
+    /**
+     * @param pattern the compiled pattern, or {@code null} if the string
+     *                could not be compiled.
+     */
+    private record Result(@Nullable Pattern pattern) {}
+
+    private static volatile Map<Key, Result> cache = new ConcurrentHashMap<>();
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @return the compiled pattern, or {@code null} if the string could not
+     * be compiled.
+     */
+    public static @Nullable Pattern compile(String string, int flags) {
+        return cache.computeIfAbsent(new Key(string, flags), PatternCompiler::tryCompile).pattern;
+    }
+
+    /**
+     * @return the compiled pattern of the trigger, or {@code null} if the
+     * trigger type does not use a pattern or the string could not be compiled.
+     */
+    public static @Nullable Pattern compile(Trigger trig) {
+        Key key = key(trig);
+        return key != null ? cache.computeIfAbsent(key, PatternCompiler::tryCompile).pattern : null;
+    }
+
+    private static @Nullable Key key(Trigger trig) {
+        return switch(trig.type) {
+            case NORMAL -> new Key(MessageUtil.normalRegex(trig.string), 0);
+            case REGEX -> new Key(trig.string, 0);
+            case KEY, WORDS, FUZZY -> null;
+        };
+    }
+
+    private static Result tryCompile(Key key) {
+        try {
+            return new Result(Pattern.compile(key.string, key.flags));
+        } catch (PatternSyntaxException e) {
+            LOG.warn("Error processing regex: {}", e.toString());
+            return new Result(null);
+        }
+    }
+
+    /**
+     * Compiles the patterns of all triggers, inclusion triggers, exclusion
+     * triggers and style targets of the active notifications of the config,
+     * and of the notifications they are snapshots of, which have changed
+     * since they were last compiled. Must be called on the client thread.
+     */
+    public static void compile(Config config) {
+        List<Trigger> triggers = new ArrayList<>();
+        List<StyleTarget> styleTargets = new ArrayList<>();
+        Set<Key> keys = new HashSet<>();
+        List<Notification> notifs = new ArrayList<>();
+        for (Notification notif : config.getActiveNotifs()) {
+            notifs.add(notif);
+            if (notif.source != null) notifs.add(notif.source);
+        }
+        for (Notification notif : notifs) {
+            for (List<Trigger> list : List.of(notif.triggers,
+                    notif.inclusionTriggers, notif.exclusionTriggers)) {
+                for (Trigger trig : list) {
+                    Key key = key(trig);
+                    if (key != null) keys.add(key);
+                    if (!trig.isPatternCurrent()) triggers.add(trig);
+                }
+            }
+            for (Trigger trig : notif.triggers) {
+                StyleTarget styleTarget = trig.styleTarget;
+                if (styleTarget.type == StyleTarget.Type.REGEX) {
+                    keys.add(new Key(styleTarget.string, 0));
+                }
+                if (!styleTarget.isCompiledCurrent()) styleTargets.add(styleTarget);
+            }
+        }
+
+        // Retain cached results, and compile the rest
+        int gen = generation.incrementAndGet();
+        Map<Key, Result> previous = cache;
+        Map<Key, Result> next = new ConcurrentHashMap<>();
+        List<Key> missing = new ArrayList<>();
+        for (Key key : keys) {
+            Result result = previous.get(key);
+            if (result != null) {
+                next.put(key, result);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        //noinspection ConstantValue
+        if (missing.size() < PARALLEL_THRESHOLD || mc == null) {
+            missing.forEach((key) -> next.put(key, tryCompile(key)));
+            cache = next;
+            apply(triggers, styleTargets);
+        } else {
+            LOG.debug("Compiling {} patterns in the background", missing.size());
+            CompletableFuture.runAsync(() -> missing.parallelStream()
+                    .forEach((key) -> next.put(key, tryCompile(key))))
+                    .thenRun(() -> mc.execute(() -> {
+                        // Skip if superseded by a later compilation
+                        if (generation.get() != gen) return;
+                        cache = next;
+                        apply(triggers, styleTargets);
+                    }));
+        }
+    }
+
+    /**
+     * Compiles the patterns of all triggers, inclusion triggers, exclusion
+     * triggers and style targets of a config which is not yet in use, on the
+     * calling thread. The patterns are added to the cache, so that they are
+     * not compiled again when the config is applied.
+     */
+    public static void precompile(Config config) {
+        List<Trigger> triggers = new ArrayList<>();
+        List<StyleTarget> styleTargets = new ArrayList<>();
+        for (Notification notif : config.getNotifs()) {
+            triggers.addAll(notif.triggers);
+            triggers.addAll(notif.inclusionTriggers);
+            triggers.addAll(notif.exclusionTriggers);
+            for (Trigger trig : notif.triggers) {
+                styleTargets.add(trig.styleTarget);
+            }
+        }
+        apply(triggers, styleTargets);
+    }
+
+    /**
+     * Sets the compiled patterns from the cache.
+     */
+    private static void apply(List<Trigger> triggers, List<StyleTarget> styleTargets) {
+        for (Trigger trig : triggers) {
+            trig.tryCompilePattern();
+        }
+        for (StyleTarget styleTarget : styleTargets) {
+            if (styleTarget.type == StyleTarget.Type.REGEX) {
+                styleTarget.tryCompilePattern();
+            } else if (styleTarget.type == StyleTarget.Type.CAPTURING) {
+                styleTarget.tryParseIndexes();
+            }
+        }
+    }
+}
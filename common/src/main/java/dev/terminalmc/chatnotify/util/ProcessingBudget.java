@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the time spent processing messages in the current tick, and
+ * determines which expensive processing stages should be skipped to limit
+ * the impact of chat floods.
+ *
+ * <p>Stages are degraded in the order defined by {@link Level}, as the time
+ * spent exceeds increasing multiples of {@link ProcessingBudget#BUDGET_NANOS}.
+ * </p>
+ *
+ * <p>Time may be recorded from any thread. The budget is reset by
+ * {@link ProcessingBudget#tick}, which must be called on the client thread.</p>
+ */
+public class ProcessingBudget {
+    /**
+     * The processing time allowed per tick before degrading.
+     */
+    public static final long BUDGET_NANOS = 5_000_000L;
+
+    public enum Level {
+        /**
+         * All stages enabled.
+         */
+        NONE(0),
+        /**
+         * Message restyling skipped.
+         */
+        NO_RESTYLE(1),
+        /**
+         * Message restyling and toasts skipped.
+         */
+        NO_TOAST(2),
+        /**
+         * Message restyling and toasts skipped, and only the username
+         * notification checked.
+         */
+        PRIORITY_ONLY(4);
+
+        /**
+         * The multiple of {@link ProcessingBudget#BUDGET_NANOS} which must be
+         * exceeded to reach this level.
+         */
+        final int multiple;
+
+        Level(int multiple) {
+            this.multiple = multiple;
+        }
+    }
+
+    private static final AtomicLong spentNanos = new AtomicLong();
+    private static final AtomicInteger messages = new AtomicInteger();
+    private static volatile Level level = Level.NONE;
+
+    // Client thread only
+    private static Level maxLevel = Level.NONE;
+    private static int degradedTicks = 0;
+    private static int degradedMessages = 0;
+
+    /**
+     * @return the degradation level to use for the next message.
+     */
+    public static Level level() {
+        return level;
+    }
+
+    /**
+     * Records time spent processing a message.
+     * @param nanos the processing time, in nanoseconds.
+     */
+    public static void record(long nanos) {
+        long spent = spentNanos.addAndGet(nanos);
+        messages.incrementAndGet();
+        Level newLevel = Level.NONE;
+        for (Level l : Level.values()) {
+            if (spent > BUDGET_NANOS * l.multiple) newLevel = l;
+        }
+        if (newLevel.ordinal() > level.ordinal()) level = newLevel;
+    }
+
+    /**
+     * Resets the budget for the next tick, and logs changes in degradation.
+     */
+    public static void tick() {
+        Level tickLevel = level;
+        long spent = spentNanos.getAndSet(0);
+        int count = messages.getAndSet(0);
+        level = Level.NONE;
+
+        if (tickLevel != Level.NONE) {
+            if (tickLevel.ordinal() > maxLevel.ordinal()) {
+                ChatNotify.LOG.warn("Processing budget of {}ms exceeded ({} messages in {}ms), " +
+                        "degrading to {}", BUDGET_NANOS / 1e6, count, spent / 1e6, tickLevel);
+                maxLevel = tickLevel;
+            }
+            degradedTicks++;
+            degradedMessages += count;
+        } else if (degradedTicks > 0) {
+            ChatNotify.LOG.warn("Processing back within budget after {} ticks " +
+                    "({} messages processed, max degradation {})",
+                    degradedTicks, degradedMessages, maxLevel);
+            maxLevel = Level.NONE;
+            degradedTicks = 0;
+            degradedMessages = 0;
+        }
+    }
+}
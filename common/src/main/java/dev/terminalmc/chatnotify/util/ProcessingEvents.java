@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events for the stages of message processing.
+ *
+ * <p>All events are disabled by default, and must be enabled in the
+ * recording settings (e.g. {@code chatnotify.ProcessMessage#enabled=true}).
+ * When an event is not enabled, {@link Event#shouldCommit} returns
+ * {@code false} and the unused event instance can be eliminated by the JIT,
+ * so callers should only compute field values after checking it.</p>
+ */
+public class ProcessingEvents {
+    /**
+     * Registers all events, so that they are listed in the recording settings
+     * before they are first used.
+     */
+    public static void register() {
+        try {
+            FlightRecorder.register(ProcessMessage.class);
+            FlightRecorder.register(CheckOwner.class);
+            FlightRecorder.register(TriggerMatch.class);
+            FlightRecorder.register(Restyle.class);
+            FlightRecorder.register(ConvertTranslatable.class);
+            FlightRecorder.register(SendResponse.class);
+        } catch (IllegalStateException | SecurityException e) {
+            // JFR is not available in this runtime
+            ChatNotify.LOG.warn("Unable to register JFR events", e);
+        }
+    }
+
+    @Category("ChatNotify")
+    @Enabled(false)
+    @StackTrace(false)
+    abstract static class ChatNotifyEvent extends Event {
+        @Label("Message Length")
+        public int length;
+    }
+
+    @Name("chatnotify.ProcessMessage")
+    @Label("Process Message")
+    @Description("Evaluation of a message against all notifications")
+    public static class ProcessMessage extends ChatNotifyEvent {
+        @Label("Activated")
+        public boolean activated;
+
+        @Label("Hidden")
+        public boolean hidden;
+    }
+
+    @Name("chatnotify.CheckOwner")
+    @Label("Check Owner")
+    @Description("Identification of messages sent by the user")
+    public static class CheckOwner extends ChatNotifyEvent {
+        @Label("Own Message")
+        public boolean ownMsg;
+    }
+
+    @Name("chatnotify.TriggerMatch")
+    @Label("Trigger Match")
+    @Description("Search of a message for a trigger and its inclusion and exclusion triggers")
+    public static class TriggerMatch extends ChatNotifyEvent {
+        @Label("Notification Index")
+        public int notifIndex;
+
+        @Label("Trigger Type")
+        public String type;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("chatnotify.Restyle")
+    @Label("Restyle")
+    @Description("Application of notification text styles to a message")
+    public static class Restyle extends ChatNotifyEvent {
+        @Label("Spans")
+        public int spans;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    @Name("chatnotify.ConvertTranslatable")
+    @Label("Convert Translatable")
+    @Description("Conversion of a translatable component to a literal component")
+    public static class ConvertTranslatable extends ChatNotifyEvent {
+        @Label("Key")
+        public String key;
+
+        @Label("Valid Format")
+        public boolean validFormat;
+    }
+
+    @Name("chatnotify.SendResponse")
+    @Label("Send Response")
+    @Description("Preparation of the response messages of an activated notification")
+    public static class SendResponse extends ChatNotifyEvent {
+        @Label("Notification Index")
+        public int notifIndex;
+
+        @Label("Responses")
+        public int responses;
+    }
+}
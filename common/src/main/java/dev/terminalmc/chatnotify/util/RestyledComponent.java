@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import com.google.common.base.Suppliers;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.components.ComponentRenderUtils;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentContents;
+import net.minecraft.network.chat.Style;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A message with restyling deferred until the restyled content is first
+ * required, for example when the message is rendered or copied.
+ *
+ * <p>Restyling does not change the text of a message, so
+ * {@link RestyledComponent#getString} does not require restyling.</p>
+ *
+ * <p>Restyling is completed on first access, which should be on the client
+ * thread.</p>
+ */
+public class RestyledComponent implements Component {
+    private final Component base;
+    private final List<StyleUtil.Span> spans;
+    private @Nullable Component restyled;
+
+    /**
+     * @param base the message to restyle.
+     * @param spans the parts of the message to restyle.
+     */
+    public RestyledComponent(Component base, List<StyleUtil.Span> spans) {
+        this.base = base;
+        this.spans = spans;
+    }
+
+    /**
+     * @return the message, not restyled.
+     */
+    public Component getBase() {
+        return base;
+    }
+
+    /**
+     * @return {@code true} if the message has already been restyled.
+     */
+    public boolean isRestyled() {
+        return restyled != null;
+    }
+
+    /**
+     * @return {@code true} if restyling may change the line breaks of the
+     * message, in which case it cannot be wrapped before restyling.
+     */
+    public boolean affectsLayout() {
+        return StyleUtil.affectsLayout(spans);
+    }
+
+    /**
+     * @return the restyled message.
+     */
+    public Component restyle() {
+        if (restyled == null) restyled = StyleUtil.applySpans(base, spans);
+        return restyled;
+    }
+
+    /**
+     * Creates lines which are restyled when first rendered, from the lines of
+     * the message as wrapped before restyling.
+     * @param baseLines the lines of {@link RestyledComponent#getBase}.
+     * @param maxWidth the width used to wrap the lines.
+     * @param font the font used to wrap the lines.
+     * @return the deferred lines.
+     */
+    public List<FormattedCharSequence> wrapDeferred(List<FormattedCharSequence> baseLines,
+                                                    int maxWidth, Font font) {
+        Supplier<List<FormattedCharSequence>> restyledLines = Suppliers.memoize(
+                () -> ComponentRenderUtils.wrapComponents(restyle(), maxWidth, font));
+        List<FormattedCharSequence> lines = new ArrayList<>(baseLines.size());
+        for (int i = 0; i < baseLines.size(); i++) {
+            int index = i;
+            FormattedCharSequence baseLine = baseLines.get(i);
+            lines.add((sink) -> {
+                List<FormattedCharSequence> restyled = restyledLines.get();
+                // Should always match, unless the layout was affected
+                return (restyled.size() == baseLines.size() ? restyled.get(index) : baseLine)
+                        .accept(sink);
+            });
+        }
+        return lines;
+    }
+
+    @Override
+    public @NotNull Style getStyle() {
+        return restyle().getStyle();
+    }
+
+    @Override
+    public @NotNull ComponentContents getContents() {
+        return restyle().getContents();
+    }
+
+    @Override
+    public @NotNull List<Component> getSiblings() {
+        return restyle().getSiblings();
+    }
+
+    @Override
+    public @NotNull FormattedCharSequence getVisualOrderText() {
+        return restyle().getVisualOrderText();
+    }
+
+    @Override
+    public @NotNull String getString() {
+        return base.getString();
+    }
+
+    @Override
+    public String toString() {
+        return restyle().toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.mixin.accessor.SoundEngineAccessor;
+import dev.terminalmc.chatnotify.mixin.accessor.SoundManagerAccessor;
+import dev.terminalmc.chatnotify.mixin.accessor.WeighedSoundEventsAccessor;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.sounds.Sound;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.client.sounds.WeighedSoundEvents;
+import net.minecraft.client.sounds.Weighted;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preloads the sound buffers of all enabled notification sounds, so that the
+ * first activation of a notification does not block on loading its sound.
+ *
+ * <p>Buffers are loaded asynchronously by the sound engine's
+ * {@link net.minecraft.client.sounds.SoundBufferLibrary}, which caches them
+ * until the sound engine is reloaded, so requesting an already-loaded sound is
+ * cheap.</p>
+ */
+public class SoundPreloader {
+    private static final ModLogger LOG = ChatNotify.LOG.forClass(SoundPreloader.class);
+
+    /**
+     * Schedules preloading of all enabled notification sounds on the client
+     * thread.
+     */
+    public static void preload() {
+        Minecraft mc = Minecraft.getInstance();
+        //noinspection ConstantValue
+        if (mc == null) return;
+        mc.execute(SoundPreloader::preloadNow);
+    }
+
+    private static void preloadNow() {
+        SoundManager manager = Minecraft.getInstance().getSoundManager();
+        //noinspection ConstantValue
+        if (manager == null) return;
+
+        // Resolve the sound files of all enabled sounds
+        List<Sound> sounds = new ArrayList<>();
+        for (Notification notif : Config.get().getActiveNotifs()) {
+            if (!notif.enabled || !notif.sound.isEnabled()) continue;
+            ResourceLocation location = notif.sound.getResourceLocation();
+            if (location == null) continue;
+            WeighedSoundEvents events = manager.getSoundEvent(location);
+            if (events != null) collectSounds(events, sounds, 0);
+        }
+
+        // Streamed sounds are not buffered
+        sounds.removeIf(Sound::shouldStream);
+        if (sounds.isEmpty()) return;
+
+        LOG.debug("Preloading {} notification sounds", sounds.size());
+        ((SoundEngineAccessor)((SoundManagerAccessor)manager).getSoundEngine())
+                .getSoundBuffers().preload(sounds).exceptionally((e) -> {
+                    LOG.warn("Unable to preload notification sounds", e);
+                    return null;
+                });
+    }
+
+    private static void collectSounds(WeighedSoundEvents events, List<Sound> sounds, int depth) {
+        if (depth > 8) return; // Guard against reference cycles
+        for (Weighted<Sound> weighted : ((WeighedSoundEventsAccessor)events).getList()) {
+            if (weighted instanceof Sound sound) {
+                sounds.add(sound);
+            } else if (weighted instanceof WeighedSoundEvents nested) {
+                collectSounds(nested, sounds, depth + 1);
+            } else {
+                // Event reference, resolves to a single sound per call
+                sounds.add(weighted.getSound(RandomSource.create()));
+            }
+        }
+    }
+}
@@ -16,8 +16,6 @@
 
 package dev.terminalmc.chatnotify.util;
 
-import dev.terminalmc.chatnotify.ChatNotify;
-import dev.terminalmc.chatnotify.config.Config;
 import dev.terminalmc.chatnotify.config.TextStyle;
 import dev.terminalmc.chatnotify.config.Trigger;
 import net.minecraft.network.chat.Component;
@@ -31,54 +29,61 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class StyleUtil {
-    private static boolean debug = false;
+
+    /**
+     * A part of a message to be restyled.
+     * @param style the {@link Style} to apply.
+     * @param start the index of the first character to restyle, or {@code -1}
+     *              to restyle the root of the message.
+     * @param end the index after the last character to restyle.
+     */
+    public record Span(Style style, int start, int end) {
+        public boolean isRoot() {
+            return start < 0;
+        }
+    }
 
     public static Component restyle(Component msg, String cleanStr, Trigger trig, Matcher matcher,
                                     TextStyle textStyle, boolean restyleAllInstances) {
-        debug = Config.get().debugMode == Config.DebugMode.ALL;
-        if (!textStyle.isEnabled()) return msg;
-        try {
-            // Convert message into a format suitable for recursive processing
-            msg = FormatUtil.convertToStyledLiteral(msg.copy());
-            if (debug) {
-                ChatNotify.LOG.warn("Converting message prior to initiating restyle");
-                ChatNotify.LOG.warn("Converted text:");
-                ChatNotify.LOG.warn(msg.getString());
-                ChatNotify.LOG.warn("Converted tree:");
-                ChatNotify.LOG.warn(msg.toString());
-            }
+        return applySpans(msg, findSpans(cleanStr, trig, matcher, textStyle, restyleAllInstances));
+    }
 
+    /**
+     * Determines which parts of a message should be restyled for a trigger,
+     * without restyling it.
+     * @return the parts of the message to restyle, in application order.
+     */
+    public static List<Span> findSpans(String cleanStr, Trigger trig, Matcher matcher,
+                                       TextStyle textStyle, boolean restyleAllInstances) {
+        List<Span> spans = new ArrayList<>();
+        if (!textStyle.isEnabled()) return spans;
+        Style style = textStyle.getStyle();
+        try {
             // Restyle, using style string if possible
-            boolean restyled = false;
             if (trig.styleTarget.enabled && !trig.styleTarget.string.isBlank()) {
                 switch(trig.styleTarget.type) {
                     case NORMAL -> {
                         Matcher m = styleSearch(cleanStr, trig.styleTarget.string);
-                        if (m.find()) {
-                            restyled = true;
-                            do {
-                                msg = restyleLeaves(msg, textStyle, m.start(), m.end());
-                            } while (restyleAllInstances && m.find());
+                        while (m.find()) {
+                            spans.add(new Span(style, m.start(), m.end()));
+                            if (!restyleAllInstances) break;
                         }
                     }
                     case REGEX -> {
                         if (trig.styleTarget.pattern != null) {
                             Matcher m = trig.styleTarget.pattern.matcher(cleanStr);
-                            if (m.find()) {
-                                restyled = true;
-                                do {
-                                    msg = restyleLeaves(msg, textStyle, m.start(), m.end());
-                                } while (restyleAllInstances && m.find());
+                            while (m.find()) {
+                                spans.add(new Span(style, m.start(), m.end()));
+                                if (!restyleAllInstances) break;
                             }
                         }
                     }
                     case CAPTURING -> {
                         if (trig.type == Trigger.Type.REGEX && matcher.groupCount() >= 1) {
                             for (int i = 1; i <= matcher.groupCount(); i++) {
-                                if (trig.styleTarget.groupIndexes.contains(i)) {
-                                    restyled = true;
-                                    msg = restyleLeaves(msg, textStyle,
-                                            matcher.start(i), matcher.end(i));
+                                if (trig.styleTarget.groupIndexes.contains(i)
+                                        && matcher.start(i) >= 0) {
+                                    spans.add(new Span(style, matcher.start(i), matcher.end(i)));
                                 }
                             }
                         }
@@ -86,34 +91,89 @@ public class StyleUtil {
                 }
             }
             // If style string not usable, attempt to restyle trigger
-            if (!restyled) {
-                if (debug) {
-                    ChatNotify.LOG.warn("Style target '{}' (type {})",
-                            trig.styleTarget.string, trig.styleTarget.type);
-                    ChatNotify.LOG.warn("Defaulting to trigger restyle");
-                }
+            if (spans.isEmpty()) {
+                TraceBuffer.record(TraceBuffer.Stage.STYLE_FALLBACK,
+                        trig.styleTarget.type.ordinal(), 0, trig.styleTarget.string);
                 switch(trig.type) {
-                    case NORMAL -> {
+                    case NORMAL, WORDS -> {
                         do {
-                            msg = restyleLeaves(msg, textStyle,
+                            spans.add(new Span(style,
                                     matcher.start() + matcher.group(1).length(),
-                                    matcher.end() - matcher.group(2).length());
+                                    matcher.end() - matcher.group(2).length()));
                         } while (restyleAllInstances && matcher.find());
                     }
                     case REGEX -> {
                         do {
-                            msg = restyleLeaves(msg, textStyle, matcher.start(), matcher.end());
+                            spans.add(new Span(style, matcher.start(), matcher.end()));
                         } while (restyleAllInstances && matcher.find());
                     }
-                    case KEY -> msg = restyleRoot(msg, textStyle);
+                    case KEY -> spans.add(new Span(style, -1, -1));
+                    case FUZZY -> {
+                        FuzzyPattern pattern = trig.fuzzyPattern;
+                        FuzzyPattern.Span span = pattern != null ? pattern.find(cleanStr, 0) : null;
+                        while (span != null) {
+                            spans.add(new Span(style, span.start(), span.end()));
+                            if (!restyleAllInstances) break;
+                            span = pattern.find(cleanStr, span.end());
+                        }
+                    }
                 }
             }
         } catch (IllegalArgumentException e) {
-            if (debug) ChatNotify.LOG.warn("Restyle error", e);
+            TraceBuffer.recordError(e);
+        }
+        return spans;
+    }
+
+    /**
+     * Restyles the specified parts of a message.
+     * @param msg the message to restyle.
+     * @param spans the parts of the message to restyle, as determined by
+     *              {@link StyleUtil#findSpans}.
+     * @return a restyled copy of the message, or the original message if
+     * there is nothing to restyle.
+     */
+    public static Component applySpans(Component msg, List<Span> spans) {
+        if (spans.isEmpty()) return msg;
+        ProcessingEvents.Restyle event = new ProcessingEvents.Restyle();
+        event.begin();
+        boolean success = true;
+        try {
+            // Convert message into a format suitable for recursive processing
+            msg = FormatUtil.convertToStyledLiteral(msg.copy());
+            TraceBuffer.record(TraceBuffer.Stage.RESTYLE, spans.size(), 0, msg);
+
+            for (Span span : spans) {
+                msg = span.isRoot()
+                        ? restyleRoot(msg, span.style)
+                        : restyleLeaves(msg, span.style, span.start, span.end);
+            }
+        } catch (IllegalArgumentException e) {
+            success = false;
+            TraceBuffer.recordError(e);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = msg.getString().length();
+            event.spans = spans.size();
+            event.success = success;
+            event.commit();
         }
         return msg;
     }
 
+    /**
+     * @return {@code true} if applying any of the spans may change the width
+     * of the message when rendered.
+     */
+    public static boolean affectsLayout(List<Span> spans) {
+        for (Span span : spans) {
+            // Bold is the only style which changes glyph width
+            if (!span.style.withBold(null).equals(span.style)) return true;
+        }
+        return false;
+    }
+
     /**
      * Performs a case-insensitive substring search for the string within the 
      * message.
@@ -129,23 +189,23 @@ public class StyleUtil {
      * Overwrites the existing root style of the message with the specified
      * style.
      * @param msg the message to restyle.
-     * @param style the {@link TextStyle} to apply.
+     * @param style the {@link Style} to apply.
      * @return the restyled message.
      */
-    private static Component restyleRoot(Component msg, TextStyle style) {
-        return msg.copy().setStyle(applyStyle(msg.getStyle(), style));
+    private static Component restyleRoot(Component msg, Style style) {
+        return msg.copy().setStyle(style.applyTo(msg.getStyle()));
     }
 
     /**
      * Uses a recursive traversal algorithm to apply the specified style to 
      * only the specified part of the message.
      * @param msg the message to restyle.
-     * @param style the {@link TextStyle} to apply.
+     * @param style the {@link Style} to apply.
      * @param start the starting index of the string to restyle.
      * @param end the index after the end of the string to restyle.
      * @return the restyled message.
      */
-    private static Component restyleLeaves(Component msg, TextStyle style, int start, int end) {
+    private static Component restyleLeaves(Component msg, Style style, int start, int end) {
         return recursiveRestyle(msg.copy(), style, start, end, 0);
     }
 
@@ -163,10 +223,9 @@ public class StyleUtil {
      * @param index the index of the start of {@code msg} in the root string.
      * @return the message, restyled if applicable.
      */
-    private static MutableComponent recursiveRestyle(MutableComponent msg, TextStyle style,
+    private static MutableComponent recursiveRestyle(MutableComponent msg, Style style,
                                                      int start, int end, int index) {
-        if (debug) ChatNotify.LOG.warn("recursiveRestyle('{}', {}, {}, {})",
-                msg.getString(), start, end, index);
+        TraceBuffer.record(TraceBuffer.Stage.RESTYLE_NODE, start, end, msg.getContents());
 
         // Detach siblings
         List<Component> oldSiblings = new ArrayList<>(msg.getSiblings());
@@ -174,7 +233,6 @@ public class StyleUtil {
 
         // Restyle contents
         if (msg.getContents() instanceof PlainTextContents contents) {
-            if (debug) ChatNotify.LOG.warn("PlainTextContents");
             String str = contents.text();
             if (index + str.length() >= start && index < end) {
                 // Target string overlaps with current substring, so restyle
@@ -190,7 +248,7 @@ public class StyleUtil {
 
                 String part2 = str.substring(localStart, localEnd);
                 if (!part2.isEmpty()) msg.append(
-                        Component.literal(part2).withStyle(style.getStyle()));
+                        Component.literal(part2).withStyle(style));
 
                 String part3 = str.substring(localEnd);
                 if (!part3.isEmpty()) msg.append(Component.literal(part3));
@@ -212,26 +270,4 @@ public class StyleUtil {
 
         return msg;
     }
-
-    /**
-     * For each enabled field of the specified {@link TextStyle}, overrides the
-     * corresponding {@link Style} field.
-     * @param style the {@link Style} to apply to.
-     * @param textStyle the {@link TextStyle} to apply.
-     * @return the {@link Style}, with the {@link TextStyle} applied.
-     */
-    private static Style applyStyle(Style style, TextStyle textStyle) {
-        if (!textStyle.bold.equals(TextStyle.FormatMode.DISABLED))
-            style = style.withBold(textStyle.bold.equals(TextStyle.FormatMode.ON));
-        if (!textStyle.italic.equals(TextStyle.FormatMode.DISABLED))
-            style = style.withItalic(textStyle.italic.equals(TextStyle.FormatMode.ON));
-        if (!textStyle.underlined.equals(TextStyle.FormatMode.DISABLED))
-            style = style.withUnderlined(textStyle.underlined.equals(TextStyle.FormatMode.ON));
-        if (!textStyle.strikethrough.equals(TextStyle.FormatMode.DISABLED))
-            style = style.withStrikethrough(textStyle.strikethrough.equals(TextStyle.FormatMode.ON));
-        if (!textStyle.obfuscated.equals(TextStyle.FormatMode.DISABLED))
-            style = style.withObfuscated(textStyle.obfuscated.equals(TextStyle.FormatMode.ON));
-        if (textStyle.doColor) style = style.withColor(textStyle.getTextColor());
-        return style;
-    }
 }
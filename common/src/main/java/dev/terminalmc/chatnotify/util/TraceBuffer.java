@@ -0,0 +1,276 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import com.google.gson.stream.JsonWriter;
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.platform.Services;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size, in-memory ring of structured message processing records,
+ * enabled by {@link Config.DebugMode#ALL}.
+ *
+ * <p>Recording a trace only stores primitive values and object references in
+ * preallocated arrays. Records are rendered to text or JSON only when
+ * dumped, either by command or when a processing error occurs, so that
+ * tracing can be left enabled on busy servers.</p>
+ *
+ * <p>Records may be written by any thread. Dumping is best-effort, and
+ * records overwritten while being dumped are skipped.</p>
+ */
+public class TraceBuffer {
+    public static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    public static final Path DUMP_DIR = Services.PLATFORM.getConfigDir()
+            .resolve(ChatNotify.MOD_ID).resolve("trace");
+    /**
+     * The minimum time between dumps caused by processing errors.
+     */
+    private static final long ERROR_DUMP_INTERVAL_MILLIS = 60_000;
+
+    /**
+     * Processing stages. The meaning of the integer values {@code a} and
+     * {@code b} of a record depends on its stage.
+     */
+    public enum Stage {
+        /** New message. a: length; detail: message. */
+        MESSAGE,
+        /** Processing degraded. a: {@link ProcessingBudget.Level} ordinal. */
+        BUDGET,
+        /** Owner check started. a: {@code 0} ChatHeads, {@code 1} heuristic. */
+        OWNER_CHECK,
+        /** Owner check match. a, b: match offsets; detail: matched string. */
+        OWNER_MATCH,
+        /** Owner check finished. a: owned string length; detail: owned string. */
+        OWNER_RESULT,
+        /** Notification activated. a: notification index; b: match start; detail: trigger. */
+        ACTIVATE,
+        /** Processing finished. a: {@code 1} if hidden; detail: final message. */
+        RESULT,
+        /** Repeat sound skipped. detail: sound location. */
+        SOUND_SKIP,
+        /** Style target unusable, restyling trigger. a: style target type ordinal. */
+        STYLE_FALLBACK,
+        /** Restyle started. a: span count; detail: converted message. */
+        RESTYLE,
+        /** Restyle recursion. a, b: target offsets; detail: component contents. */
+        RESTYLE_NODE,
+        /** Translatable converted. a: arg count; detail: key. */
+        CONVERT,
+        /** Translatable format invalid. detail: exception. */
+        CONVERT_INVALID,
+        /** Translatable arg added. a: arg index; detail: arg. */
+        CONVERT_ARG,
+        /** Processing error. detail: exception. */
+        ERROR,
+    }
+
+    private static volatile boolean enabled = false;
+    private static final AtomicLong next = new AtomicLong();
+    private static final AtomicInteger nextMessageId = new AtomicInteger();
+    private static final ThreadLocal<int[]> currentMessage = ThreadLocal.withInitial(() -> new int[1]);
+    private static volatile long lastErrorDump = 0;
+
+    // Records, indexed by sequence number & MASK
+    private static final long[] seqs = new long[CAPACITY];
+    private static final long[] times = new long[CAPACITY];
+    private static final Stage[] stages = new Stage[CAPACITY];
+    private static final int[] messageIds = new int[CAPACITY];
+    private static final int[] as = new int[CAPACITY];
+    private static final int[] bs = new int[CAPACITY];
+    private static final Object[] details = new Object[CAPACITY];
+    private static final String[] threads = new String[CAPACITY];
+
+    /**
+     * Enables or disables recording. Existing records are retained.
+     */
+    public static void setEnabled(boolean enabled) {
+        TraceBuffer.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns a new id to the message being processed by the current thread.
+     * @return the id.
+     */
+    public static int beginMessage() {
+        if (!enabled) return 0;
+        int id = nextMessageId.incrementAndGet();
+        currentMessage.get()[0] = id;
+        return id;
+    }
+
+    /**
+     * Sets the message being processed by the current thread.
+     */
+    public static void setMessage(int id) {
+        if (enabled) currentMessage.get()[0] = id;
+    }
+
+    public static void record(Stage stage) {
+        record(stage, 0, 0, null);
+    }
+
+    public static void record(Stage stage, @Nullable Object detail) {
+        record(stage, 0, 0, detail);
+    }
+
+    /**
+     * Records a trace, if enabled.
+     * @param stage the processing stage.
+     * @param a the first stage-dependent value.
+     * @param b the second stage-dependent value.
+     * @param detail a stage-dependent object, rendered only when dumped.
+     */
+    public static void record(Stage stage, int a, int b, @Nullable Object detail) {
+        if (!enabled) return;
+        long seq = next.getAndIncrement();
+        int i = (int)(seq & MASK);
+        seqs[i] = -1; // Mark as being written
+        times[i] = System.nanoTime();
+        stages[i] = stage;
+        messageIds[i] = currentMessage.get()[0];
+        as[i] = a;
+        bs[i] = b;
+        details[i] = detail;
+        threads[i] = Thread.currentThread().getName();
+        seqs[i] = seq;
+    }
+
+    /**
+     * Records a processing error, and dumps the trace to a file if enabled
+     * and not dumped due to an error recently.
+     */
+    public static void recordError(Throwable e) {
+        if (!enabled) return;
+        record(Stage.ERROR, e);
+        long time = System.currentTimeMillis();
+        if (time - lastErrorDump < ERROR_DUMP_INTERVAL_MILLIS) return;
+        lastErrorDump = time;
+        try {
+            Path file = dump(false);
+            ChatNotify.LOG.warn("Processing error, wrote trace to '{}'", file);
+        } catch (IOException ioe) {
+            ChatNotify.LOG.warn("Unable to write trace", ioe);
+        }
+    }
+
+    /**
+     * Writes all records to a new file in {@link TraceBuffer#DUMP_DIR}.
+     * @param json {@code true} to write JSON, {@code false} to write text.
+     * @return the file.
+     */
+    public static Path dump(boolean json) throws IOException {
+        Files.createDirectories(DUMP_DIR);
+        String name = "trace-" + LocalDateTime.now().format(
+                DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + (json ? ".json" : ".txt");
+        Path file = DUMP_DIR.resolve(name);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (json) {
+                writeJson(writer);
+            } else {
+                writeText(writer);
+            }
+        }
+        return file;
+    }
+
+    private static void writeText(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        long first = -1;
+        long end = next.get();
+        for (long seq = Math.max(0, end - CAPACITY); seq < end; seq++) {
+            int i = (int)(seq & MASK);
+            long time = times[i];
+            Stage stage = stages[i];
+            int msgId = messageIds[i];
+            int a = as[i];
+            int b = bs[i];
+            Object detail = details[i];
+            String thread = threads[i];
+            if (seqs[i] != seq) continue; // Overwritten
+            if (first == -1) first = time;
+            out.printf("%10.3fms #%-6d %-15s %-22s a=%-6d b=%-6d %s%n",
+                    (time - first) / 1e6, msgId, stage, "[" + thread + "]", a, b,
+                    renderText(detail));
+        }
+        out.flush();
+    }
+
+    private static void writeJson(Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginArray();
+        long end = next.get();
+        for (long seq = Math.max(0, end - CAPACITY); seq < end; seq++) {
+            int i = (int)(seq & MASK);
+            long time = times[i];
+            Stage stage = stages[i];
+            int msgId = messageIds[i];
+            int a = as[i];
+            int b = bs[i];
+            Object detail = details[i];
+            String thread = threads[i];
+            if (seqs[i] != seq) continue; // Overwritten
+            json.beginObject();
+            json.name("seq").value(seq);
+            json.name("timeNanos").value(time);
+            json.name("thread").value(thread);
+            json.name("message").value(msgId);
+            json.name("stage").value(stage.name());
+            json.name("a").value(a);
+            json.name("b").value(b);
+            if (detail instanceof Component component) {
+                json.name("text").value(component.getString());
+                json.name("tree").value(component.toString());
+            } else if (detail != null) {
+                json.name("detail").value(renderText(detail));
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static String renderText(@Nullable Object detail) {
+        if (detail == null) return "";
+        if (detail instanceof Component component) {
+            return "'" + component.getString() + "' " + component;
+        }
+        if (detail instanceof Throwable e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+        return detail.toString();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.config.Trigger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runtime counters for each {@link Trigger} of each {@link Notification},
+ * recorded by {@link MessageUtil#tryMatch}.
+ *
+ * <p>Counters are stored in atomic arrays indexed by
+ * {@link Trigger#metricsId}, which is assigned when the config is compiled by
+ * {@link TriggerMetrics#reset}. Searches of a snapshot trigger are recorded
+ * against its {@link Trigger#source}. All counters are reset at the same
+ * time.</p>
+ *
+ * <p>Messages may be evaluated by several threads at once, such as the
+ * {@link Config.DetectionMode#PACKET_ASYNC} worker and the client thread, or
+ * the replay tool's parallel workers, so counters are updated atomically.
+ * Counters of one trigger are updated separately, so may be slightly
+ * inconsistent with each other while being read.</p>
+ */
+public class TriggerMetrics {
+    /**
+     * The number of latency histogram buckets. Bucket {@code i} counts
+     * searches taking less than {@code 4^i} microseconds, and the last bucket
+     * counts all longer searches.
+     */
+    public static final int BUCKETS = 8;
+
+    public enum Outcome {
+        MISS,
+        HIT,
+        INCLUSION_REJECT,
+        EXCLUSION_REJECT,
+    }
+
+    /**
+     * The counters for one config.
+     */
+    public static class Table {
+        public final List<Notification> notifs;
+        public final List<Trigger> triggers;
+        /**
+         * The index in {@link Table#notifs} of the notification of each
+         * trigger.
+         */
+        public final int[] notifIndexes;
+        public final AtomicLongArray evaluations;
+        public final AtomicLongArray hits;
+        public final AtomicLongArray inclusionRejects;
+        public final AtomicLongArray exclusionRejects;
+        public final AtomicLongArray nanos;
+        /**
+         * The latency histogram of each trigger, {@link TriggerMetrics#BUCKETS}
+         * elements per trigger.
+         */
+        public final AtomicLongArray histogram;
+        public final long startTime = System.currentTimeMillis();
+
+        private Table(List<Notification> notifs, List<Trigger> triggers, int[] notifIndexes) {
+            this.notifs = notifs;
+            this.triggers = triggers;
+            this.notifIndexes = notifIndexes;
+            int size = triggers.size();
+            evaluations = new AtomicLongArray(size);
+            hits = new AtomicLongArray(size);
+            inclusionRejects = new AtomicLongArray(size);
+            exclusionRejects = new AtomicLongArray(size);
+            nanos = new AtomicLongArray(size);
+            histogram = new AtomicLongArray(size * BUCKETS);
+        }
+
+        public int size() {
+            return triggers.size();
+        }
+    }
+
+    private static volatile Table table = new Table(List.of(), List.of(), new int[0]);
+
+    /**
+     * @return the current counters.
+     */
+    public static Table get() {
+        return table;
+    }
+
+    /**
+     * Resets all counters if the triggers of the config are not the same
+     * instances, in the same order, as those of the current counters.
+     */
+    public static void update(Config config) {
+        if (!matches(table, config.getNotifs())) reset(config);
+    }
+
+    private static boolean matches(Table t, List<Notification> notifs) {
+        // Notification does not override equals, so compares identity
+        if (!notifs.equals(t.notifs)) return false;
+        int id = 0;
+        for (Notification notif : notifs) {
+            for (Trigger trig : notif.triggers) {
+                if (id >= t.size() || t.triggers.get(id) != trig) return false;
+                id++;
+            }
+        }
+        return id == t.size();
+    }
+
+    /**
+     * Assigns an id to each trigger of the config, and resets all counters.
+     */
+    public static void reset(Config config) {
+        List<Notification> notifs = List.copyOf(config.getNotifs());
+        List<Trigger> triggers = new ArrayList<>();
+        List<Integer> notifIndexes = new ArrayList<>();
+        for (int i = 0; i < notifs.size(); i++) {
+            for (Trigger trig : notifs.get(i).triggers) {
+                trig.metricsId = triggers.size();
+                triggers.add(trig);
+                notifIndexes.add(i);
+            }
+        }
+        table = new Table(notifs, List.copyOf(triggers),
+                notifIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return the index of the notification of the trigger, or {@code -1} if
+     * the trigger has not been assigned an id.
+     */
+    public static int notifIndex(Trigger trig) {
+        if (trig.source != null) trig = trig.source;
+        Table t = table;
+        int id = trig.metricsId;
+        if (id < 0 || id >= t.size() || t.triggers.get(id) != trig) return -1;
+        return t.notifIndexes[id];
+    }
+
+    /**
+     * Records a trigger search.
+     * @param trig the {@link Trigger}.
+     * @param outcome the result of the search.
+     * @param nanos the time taken by the search, in nanoseconds.
+     */
+    public static void record(Trigger trig, Outcome outcome, long nanos) {
+        if (trig.source != null) trig = trig.source;
+        Table t = table;
+        int id = trig.metricsId;
+        // Ignore triggers added since the last reset
+        if (id < 0 || id >= t.size() || t.triggers.get(id) != trig) return;
+        t.evaluations.incrementAndGet(id);
+        switch (outcome) {
+            case MISS -> {}
+            case HIT -> t.hits.incrementAndGet(id);
+            case INCLUSION_REJECT -> t.inclusionRejects.incrementAndGet(id);
+            case EXCLUSION_REJECT -> t.exclusionRejects.incrementAndGet(id);
+        }
+        t.nanos.addAndGet(id, nanos);
+        t.histogram.incrementAndGet(id * BUCKETS + bucket(nanos));
+    }
+
+    /**
+     * @return the histogram bucket of the time.
+     */
+    public static int bucket(long nanos) {
+        int bits = 64 - Long.numberOfLeadingZeros(nanos >> 10);
+        return Math.min(BUCKETS - 1, (bits + 1) / 2);
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.util;
+
+import dev.terminalmc.chatnotify.ChatNotify;
+import dev.terminalmc.chatnotify.platform.Services;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A list of words read from a file in {@link WordList#DIR}, for
+ * {@link dev.terminalmc.chatnotify.config.Trigger.Type#WORDS} triggers.
+ *
+ * <p>The file contains one word or phrase per line. Blank lines and lines
+ * starting with {@code #} are ignored.</p>
+ *
+ * <p>The words are compiled into an Aho-Corasick automaton stored in
+ * primitive arrays, so that a message is searched for all words in a single
+ * pass. Words are matched with the semantics of
+ * {@link MessageUtil#normalSearch}; case-insensitive, and not preceded or
+ * followed by a word character.</p>
+ *
+ * <p>Instances are immutable, and cached by file name until the file is
+ * modified.</p>
+ */
+public class WordList {
+    private static final ModLogger LOG = ChatNotify.LOG.forClass(WordList.class);
+
+    public static final Path DIR = Services.PLATFORM.getConfigDir()
+            .resolve(ChatNotify.MOD_ID).resolve("words");
+
+    private static final Map<String, WordList> cache = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileTime modified;
+    private final long fileSize;
+
+    /**
+     * The distinct words, sorted by case-folded value.
+     */
+    private final String[] words;
+
+    // Automaton, indexed by state. State 0 is the root, and states are
+    // numbered in breadth-first order.
+
+    /**
+     * The edges of state {@code s} are at indexes {@code edgeStart[s]} to
+     * {@code edgeStart[s + 1]} of {@link WordList#edgeChars} and
+     * {@link WordList#edgeTargets}, sorted by char.
+     */
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    /**
+     * The state of the longest proper suffix of each state.
+     */
+    private final int[] fail;
+    /**
+     * The index of the word ending at each state, or {@code -1} if none.
+     */
+    private final int[] output;
+    /**
+     * The nearest state with an output reached by {@link WordList#fail}
+     * links from each state, or {@code -1} if none.
+     */
+    private final int[] outputLink;
+
+    private final long memoryBytes;
+
+    /**
+     * Returns the word list in the file, reading it if not cached or if the
+     * file has been modified.
+     * @param name the name of the file in {@link WordList#DIR}.
+     * @return the word list, or {@code null} if the file could not be read.
+     */
+    public static @Nullable WordList get(String name) {
+        Path file;
+        try {
+            file = DIR.resolve(name.strip()).normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (name.isBlank() || !file.startsWith(DIR)) return null;
+
+        WordList cached = cache.get(name);
+        if (cached != null && cached.isCurrent()) return cached;
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            long size = Files.size(file);
+            List<String> words = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) words.add(line);
+            }
+            WordList list = new WordList(file, modified, size, words);
+            LOG.debug("Compiled word list '{}': {} words, {} states, {} KiB",
+                    name, list.size(), list.states(), list.memoryBytes() / 1024);
+            cache.put(name, list);
+            return list;
+        } catch (IOException e) {
+            LOG.warn("Unable to read word list '{}': {}", name, e.toString());
+            cache.remove(name);
+            return null;
+        }
+    }
+
+    private WordList(Path file, FileTime modified, long fileSize, List<String> wordList) {
+        this.file = file;
+        this.modified = modified;
+        this.fileSize = fileSize;
+
+        // Fold case, and remove duplicates
+        TreeMap<String, String> folded = new TreeMap<>();
+        for (String word : wordList) {
+            folded.putIfAbsent(fold(word), word);
+        }
+        words = folded.values().toArray(new String[0]);
+
+        // Build the trie as first-child and next-sibling links. As the words
+        // are sorted, children are added in ascending order, and the child
+        // matching the next char of a word can only be the last child added.
+        int capacity = 1;
+        for (String key : folded.keySet()) {
+            capacity += key.length();
+        }
+        char[] labels = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] lastChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] trieOutput = new int[capacity];
+        Arrays.fill(trieOutput, -1);
+        int states = 1;
+        int index = 0;
+        for (String key : folded.keySet()) {
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                int child = lastChild[state];
+                if (child == 0 || labels[child] != c) {
+                    child = states++;
+                    labels[child] = c;
+                    if (lastChild[state] == 0) {
+                        firstChild[state] = child;
+                    } else {
+                        nextSibling[lastChild[state]] = child;
+                    }
+                    lastChild[state] = child;
+                }
+                state = child;
+            }
+            trieOutput[state] = index++;
+        }
+
+        // Renumber in breadth-first order, storing the edges of each state
+        // contiguously
+        int[] order = new int[states];
+        edgeStart = new int[states + 1];
+        edgeChars = new char[states - 1];
+        edgeTargets = new int[states - 1];
+        output = new int[states];
+        int tail = 1;
+        int edge = 0;
+        for (int head = 0; head < states; head++) {
+            int state = order[head];
+            edgeStart[head] = edge;
+            output[head] = trieOutput[state];
+            for (int child = firstChild[state]; child != 0; child = nextSibling[child]) {
+                edgeChars[edge] = labels[child];
+                edgeTargets[edge++] = tail;
+                order[tail++] = child;
+            }
+        }
+        edgeStart[states] = edge;
+
+        // Link each state to its longest proper suffix, in breadth-first
+        // order so that the links of shorter suffixes are already set
+        fail = new int[states];
+        outputLink = new int[states];
+        outputLink[0] = -1;
+        for (int state = 0; state < states; state++) {
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int child = edgeTargets[e];
+                int suffix = state == 0 ? 0 : next(fail[state], edgeChars[e]);
+                fail[child] = suffix;
+                outputLink[child] = output[suffix] >= 0 ? suffix : outputLink[suffix];
+            }
+        }
+
+        long bytes = 4L * (edgeStart.length + edgeTargets.length + fail.length
+                + output.length + outputLink.length) + 2L * edgeChars.length;
+        for (String word : words) {
+            bytes += 40 + 2L * word.length();
+        }
+        memoryBytes = bytes;
+    }
+
+    /**
+     * @return {@code true} if the file has not been modified since it was
+     * read.
+     */
+    public boolean isCurrent() {
+        try {
+            return Files.getLastModifiedTime(file).equals(modified)
+                    && Files.size(file) == fileSize;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of distinct words.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @return the number of automaton states.
+     */
+    public int states() {
+        return fail.length;
+    }
+
+    /**
+     * @return the approximate memory used by the words and automaton, in
+     * bytes.
+     */
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * @return {@code true} if any word of this list is found in the message.
+     */
+    public boolean contains(String msg) {
+        return search(msg, null);
+    }
+
+    /**
+     * @return the distinct words of this list found in the message, longest
+     * first.
+     */
+    public List<String> findAll(String msg) {
+        List<String> found = new ArrayList<>();
+        search(msg, found);
+        found.sort(Comparator.comparingInt(String::length).reversed());
+        return found;
+    }
+
+    /**
+     * Searches the message for the words of this list.
+     * @param found the list to add the words found to, or {@code null} to
+     *              stop at the first word found.
+     * @return {@code true} if any word was found.
+     */
+    private boolean search(String msg, @Nullable List<String> found) {
+        boolean any = false;
+        int state = 0;
+        for (int i = 0; i < msg.length(); i++) {
+            state = next(state, fold(msg.charAt(i)));
+            int s = output[state] >= 0 ? state : outputLink[state];
+            for (; s >= 0; s = outputLink[s]) {
+                String word = words[output[s]];
+                int start = i + 1 - word.length();
+                if (!isWordChar(msg, start - 1) && !isWordChar(msg, i + 1)) {
+                    if (found == null) return true;
+                    if (!found.contains(word)) found.add(word);
+                    any = true;
+                }
+            }
+        }
+        return any;
+    }
+
+    /**
+     * @return the state reached from the state by the char.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int target = edge(state, c);
+            if (target >= 0) return target;
+            if (state == 0) return 0;
+            state = fail[state];
+        }
+    }
+
+    /**
+     * @return the target of the edge of the state for the char, or
+     * {@code -1} if none.
+     */
+    private int edge(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Folds case as for a case-insensitive, Unicode-aware {@link
+     * java.util.regex.Pattern}, retaining the length of the string.
+     */
+    private static String fold(String str) {
+        char[] chars = str.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * @return {@code true} if the char at the index is matched by the
+     * Unicode word character class {@code \w}.
+     */
+    private static boolean isWordChar(String msg, int index) {
+        if (index < 0 || index >= msg.length()) return false;
+        char c = msg.charAt(index);
+        if (Character.isAlphabetic(c) || Character.isDigit(c)) return true;
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.CONNECTOR_PUNCTUATION
+                || c == '\u200C' || c == '\u200D';
+    }
+}
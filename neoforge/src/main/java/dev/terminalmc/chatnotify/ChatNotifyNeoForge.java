@@ -24,6 +24,7 @@ import net.neoforged.fml.ModLoadingContext;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.client.event.RegisterClientCommandsEvent;
 import net.neoforged.neoforge.client.gui.IConfigScreenFactory;
 
 @Mod(value = ChatNotify.MOD_ID, dist = Dist.CLIENT)
@@ -41,5 +42,10 @@ public class ChatNotifyNeoForge {
         public static void clientTickEvent(ClientTickEvent.Post event) {
             ChatNotify.onEndTick(Minecraft.getInstance());
         }
+
+        @SubscribeEvent
+        public static void registerClientCommandsEvent(RegisterClientCommandsEvent event) {
+            event.getDispatcher().register(ChatNotify.getCommand());
+        }
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.replay;
+
+import dev.terminalmc.chatnotify.config.Config;
+import dev.terminalmc.chatnotify.config.Notification;
+import dev.terminalmc.chatnotify.config.Trigger;
+import dev.terminalmc.chatnotify.util.ChatHistory;
+import dev.terminalmc.chatnotify.util.MessageUtil;
+import dev.terminalmc.chatnotify.util.PatternCompiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Command-line tool which replays logged chat through the triggers of a
+ * config, and reports activation counts, search times and throughput.
+ *
+ * <p>Usage: {@code ChatReplay <config file> <log file>...}, where each log
+ * file is a Minecraft log or a ChatNotify chat history file. Files referenced
+ * by the config, such as word lists, are read relative to the directory of
+ * the config file, unless the
+ * {@value ReplayPlatformInfo#CONFIG_DIR_PROPERTY} system property is set to
+ * another config directory.</p>
+ *
+ * <p>Each message is checked as an incoming message from another player, as
+ * the sender cannot be determined from the log. Notification cooldowns and
+ * replacement messages are not applied, as messages are replayed in
+ * parallel. Notifications for all servers are checked.</p>
+ *
+ * <p>Minecraft logs are read and replayed in chunks, but each chat history
+ * file is read whole before it is split, so must fit in memory.</p>
+ */
+public class ChatReplay {
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.printf("Usage: ChatReplay [-D%s=<config dir>] <config file> <log file>...%n",
+                    ReplayPlatformInfo.CONFIG_DIR_PROPERTY);
+            System.exit(2);
+        }
+
+        Path configFile = Path.of(args[0]);
+        // Must be set before the platform is loaded
+        if (System.getProperty(ReplayPlatformInfo.CONFIG_DIR_PROPERTY) == null) {
+            System.setProperty(ReplayPlatformInfo.CONFIG_DIR_PROPERTY,
+                    configFile.toAbsolutePath().getParent().toString());
+        }
+        Config config = Files.exists(configFile) ? Config.read(configFile) : null;
+        if (config == null) {
+            System.err.printf("Unable to read config '%s'%n", configFile);
+            System.exit(1);
+        }
+        PatternCompiler.precompile(config);
+
+        List<Supplier<List<ChatHistory.Line>>> chunks = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            try {
+                chunks.addAll(ReplayInput.chunks(Path.of(args[i])));
+            } catch (IOException e) {
+                System.err.printf("Unable to read log '%s': %s%n", args[i], e);
+                System.exit(1);
+            }
+        }
+
+        List<Notification> notifs = config.getNotifs();
+        boolean single = config.notifMode.equals(Config.NotifMode.SINGLE);
+        long start = System.nanoTime();
+        ReplayStats stats = chunks.parallelStream()
+                .map((chunk) -> replay(notifs, single, chunk.get()))
+                .reduce(ReplayStats::merge)
+                .orElseGet(() -> new ReplayStats(notifs));
+        long elapsed = System.nanoTime() - start;
+
+        report(notifs, stats, elapsed);
+    }
+
+    /**
+     * Replays a chunk of messages on the current thread.
+     */
+    private static ReplayStats replay(List<Notification> notifs, boolean single,
+                                      List<ChatHistory.Line> lines) {
+        ReplayStats stats = new ReplayStats(notifs);
+        for (ChatHistory.Line line : lines) {
+            stats.lines++;
+            String cleanStr = line.cleanStr();
+            for (int i = 0; i < notifs.size(); i++) {
+                Notification notif = notifs.get(i);
+                if (!notif.canActivate(false)) continue;
+
+                // Equivalent to MessageUtil.findMatch, timed per trigger
+                boolean activated = false;
+                for (int j = 0; j < notif.triggers.size(); j++) {
+                    long time = System.nanoTime();
+                    MessageUtil.Match match = MessageUtil.tryMatch(notif, notif.triggers.get(j),
+                            cleanStr, cleanStr, line.key());
+                    stats.triggerNanos[i][j] += System.nanoTime() - time;
+                    if (match != null) {
+                        stats.triggerHits[i][j]++;
+                        activated = true;
+                        break;
+                    }
+                }
+                if (activated) {
+                    stats.activations[i]++;
+                    if (single) break;
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static void report(List<Notification> notifs, ReplayStats stats, long elapsedNanos) {
+        System.out.printf("Replayed %d messages in %.2fs (%.0f messages/s, %.0f messages/s of trigger search time)%n",
+                stats.lines, elapsedNanos / 1e9, stats.lines / (elapsedNanos / 1e9),
+                stats.lines / (stats.totalNanos() / 1e9));
+        for (int i = 0; i < notifs.size(); i++) {
+            Notification notif = notifs.get(i);
+            System.out.printf("%n#%d '%s'%s: %d activations%n", i, notif.getString(),
+                    notif.canActivate(false) ? "" : " (disabled)", stats.activations[i]);
+            for (int j = 0; j < notif.triggers.size(); j++) {
+                Trigger trig = notif.triggers.get(j);
+                System.out.printf("  %-6s %-40s %8d hits %10.2fms%n", trig.type, "'" + trig.string + "'",
+                        stats.triggerHits[i][j], stats.triggerNanos[i][j] / 1e6);
+            }
+        }
+    }
+}
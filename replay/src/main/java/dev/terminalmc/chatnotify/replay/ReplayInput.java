@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.replay;
+
+import dev.terminalmc.chatnotify.util.ChatHistory;
+import dev.terminalmc.chatnotify.util.ChatLog;
+import net.minecraft.ChatFormatting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reads chat messages for replay, split into chunks which can be read and
+ * processed in parallel.
+ *
+ * <p>Supported inputs are Minecraft logs, from which the {@code [CHAT]} lines
+ * are read, and ChatNotify chat history files.</p>
+ */
+public class ReplayInput {
+    /**
+     * The approximate size of a Minecraft log chunk, in bytes.
+     */
+    public static final int LOG_CHUNK_SIZE = 8 * 1024 * 1024;
+    /**
+     * The number of chat history records in a chunk.
+     */
+    public static final int HISTORY_CHUNK_SIZE = 4096;
+    private static final String CHAT_MARKER = "[CHAT] ";
+
+    /**
+     * @return the chunks of the input file, in order. Each chunk reads its
+     * lines when called.
+     */
+    public static List<Supplier<List<ChatHistory.Line>>> chunks(Path file) throws IOException {
+        return ChatLog.isLogFile(file) ? historyChunks(file) : logChunks(file);
+    }
+
+    private static List<Supplier<List<ChatHistory.Line>>> historyChunks(Path file)
+            throws IOException {
+        List<ChatHistory.Line> lines = ChatLog.readAll(file).stream()
+                .map(ChatLog.Record::line).toList();
+        List<Supplier<List<ChatHistory.Line>>> chunks = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i += HISTORY_CHUNK_SIZE) {
+            List<ChatHistory.Line> chunk =
+                    lines.subList(i, Math.min(lines.size(), i + HISTORY_CHUNK_SIZE));
+            chunks.add(() -> chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Splits a Minecraft log into chunks of approximately
+     * {@link ReplayInput#LOG_CHUNK_SIZE} bytes, ending at line boundaries.
+     * Each chunk is memory-mapped and decoded when read.
+     */
+    private static List<Supplier<List<ChatHistory.Line>>> logChunks(Path file)
+            throws IOException {
+        List<Supplier<List<ChatHistory.Line>>> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = nextLineStart(channel, Math.min(size, start + LOG_CHUNK_SIZE));
+                long chunkStart = start;
+                chunks.add(() -> readLog(file, chunkStart, end - chunkStart));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the position after the first line break at or after the
+     * specified position, or the end of the file.
+     */
+    private static long nextLineStart(FileChannel channel, long pos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (pos < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return pos + i + 1;
+            }
+            pos += read;
+        }
+        return channel.size();
+    }
+
+    private static List<ChatHistory.Line> readLog(Path file, long start, long length) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            String text = StandardCharsets.UTF_8.decode(
+                    channel.map(FileChannel.MapMode.READ_ONLY, start, length)).toString();
+            List<ChatHistory.Line> lines = new ArrayList<>();
+            text.lines().forEach((line) -> {
+                int i = line.indexOf(CHAT_MARKER);
+                if (i == -1) return;
+                String msg = ChatFormatting.stripFormatting(line.substring(i + CHAT_MARKER.length()));
+                if (msg != null) lines.add(new ChatHistory.Line(msg, null, null));
+            });
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
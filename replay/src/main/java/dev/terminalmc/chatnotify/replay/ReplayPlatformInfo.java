@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.replay;
+
+import dev.terminalmc.chatnotify.platform.services.IPlatformInfo;
+
+import java.nio.file.Path;
+
+/**
+ * Platform for the replay tool. The config directory is used to locate files
+ * referenced by the config, such as the word lists of
+ * {@link dev.terminalmc.chatnotify.config.Trigger.Type#WORDS} triggers. It is
+ * set by the {@link ReplayPlatformInfo#CONFIG_DIR_PROPERTY} system property,
+ * which {@link ChatReplay} defaults to the directory of the config file.
+ */
+public class ReplayPlatformInfo implements IPlatformInfo {
+    public static final String CONFIG_DIR_PROPERTY = "chatnotify.replay.configDir";
+
+    @Override
+    public Path getConfigDir() {
+        return Path.of(System.getProperty(CONFIG_DIR_PROPERTY, "."));
+    }
+}
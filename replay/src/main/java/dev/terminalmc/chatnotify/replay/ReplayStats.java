@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 TerminalMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.terminalmc.chatnotify.replay;
+
+import dev.terminalmc.chatnotify.config.Notification;
+
+import java.util.List;
+
+/**
+ * Activation counts and search times of a replay, indexed by notification
+ * and trigger. Instances are accumulated by a single thread, then merged.
+ */
+public class ReplayStats {
+    public long lines;
+    public final long[] activations;
+    public final long[][] triggerHits;
+    public final long[][] triggerNanos;
+
+    public ReplayStats(List<Notification> notifs) {
+        activations = new long[notifs.size()];
+        triggerHits = new long[notifs.size()][];
+        triggerNanos = new long[notifs.size()][];
+        for (int i = 0; i < notifs.size(); i++) {
+            triggerHits[i] = new long[notifs.get(i).triggers.size()];
+            triggerNanos[i] = new long[notifs.get(i).triggers.size()];
+        }
+    }
+
+    /**
+     * Adds the values of the other instance to this instance.
+     * @return this instance.
+     */
+    public ReplayStats merge(ReplayStats other) {
+        lines += other.lines;
+        for (int i = 0; i < activations.length; i++) {
+            activations[i] += other.activations[i];
+            for (int j = 0; j < triggerHits[i].length; j++) {
+                triggerHits[i][j] += other.triggerHits[i][j];
+                triggerNanos[i][j] += other.triggerNanos[i][j];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the total search time, in nanoseconds.
+     */
+    public long totalNanos() {
+        long total = 0;
+        for (long[] nanos : triggerNanos) {
+            for (long n : nanos) total += n;
+        }
+        return total;
+    }
+}